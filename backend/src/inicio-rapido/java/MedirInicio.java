@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Roda no perfil Maven inicio-rapido (fase integration-test), com a mesma JVM do build:
+//   java src/inicio-rapido/java/MedirInicio.java <jar> <diretorio de trabalho> <repeticoes>
+// 1. Extrai o jar (jarmode tools) e faz a execução de treino que grava o arquivo AppCDS (application.jsa);
+//    o treino sobe o contexto com AOT até o refresh (spring.context.exit=onRefresh); o Flyway cria o schema num H2 em arquivo
+// 2. Mede o tempo até a primeira resposta 200 de GET /api/artefatos?limite=1, contado do início do processo:
+//    padrao        = java -jar do jar completo: migrações num H2 vazio, validação do schema e criação do admin
+//    inicio-rapido = jar extraído + AOT + CDS + perfil inicio-rapido, com o schema já migrado
+//    inicio-rapido-c1 = o mesmo só com o compilador C1 (-XX:TieredStopAtLevel=1): sobe mais rápido com poucos
+//                       núcleos, mas o código nunca chega ao C2; ver JAVA_OPTS no Dockerfile
+// Resultado (mediana e mínimo de cada modo) no console e em <diretorio>/resultado.json
+public class MedirInicio {
+
+    private static final String BANCO_H2 = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(3);
+
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final Path trabalho;
+
+    MedirInicio(Path trabalho) {
+        this.trabalho = trabalho;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        Path trabalho = Path.of(args[1]).toAbsolutePath();
+        int repeticoes = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        new MedirInicio(trabalho).executar(jar, repeticoes);
+    }
+
+    void executar(Path jar, int repeticoes) throws Exception {
+        apagar(trabalho);
+        Files.createDirectories(trabalho.resolve("logs"));
+        Path extraido = trabalho.resolve("app");
+        executarAteFim("extracao", List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract",
+                "--destination", extraido.toString()));
+        Path jarExtraido = extraido.resolve(jar.getFileName());
+        Path arquivoCds = extraido.resolve("application.jsa");
+
+        List<String> treino = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + arquivoCds,
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh", "-jar", jarExtraido.toString()));
+        treino.addAll(comuns("inicio-rapido", "jdbc:h2:file:" + trabalho.resolve("banco") + BANCO_H2));
+        executarAteFim("treino", treino);
+        if (!Files.exists(arquivoCds)) {
+            throw new IllegalStateException("A execução de treino não gerou " + arquivoCds);
+        }
+
+        long[] padrao = new long[repeticoes];
+        long[] rapido = new long[repeticoes];
+        long[] rapidoC1 = new long[repeticoes];
+        for (int i = 0; i < repeticoes; i++) {
+            List<String> comando = new ArrayList<>(List.of(java, "-jar", jar.toString()));
+            comando.addAll(comuns(null, "jdbc:h2:mem:padrao" + BANCO_H2));
+            padrao[i] = primeiraResposta("padrao-" + (i + 1), comando);
+
+            rapido[i] = primeiraResposta("inicio-rapido-" + (i + 1), inicioRapido(jarExtraido, arquivoCds));
+            rapidoC1[i] = primeiraResposta("inicio-rapido-c1-" + (i + 1),
+                    inicioRapido(jarExtraido, arquivoCds, "-XX:TieredStopAtLevel=1"));
+        }
+        relatar(padrao, rapido, rapidoC1);
+    }
+
+    private List<String> inicioRapido(Path jarExtraido, Path arquivoCds, String... opcoesJvm) {
+        List<String> comando = new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=" + arquivoCds, "-Xshare:auto",
+                "-Dspring.aot.enabled=true"));
+        comando.addAll(List.of(opcoesJvm));
+        comando.addAll(List.of("-jar", jarExtraido.toString()));
+        comando.addAll(comuns("inicio-rapido", "jdbc:h2:file:" + trabalho.resolve("banco") + BANCO_H2));
+        return comando;
+    }
+
+    private List<String> comuns(String perfil, String url) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--storage.location=" + trabalho.resolve("upload"),
+                "--logging.level.root=WARN"));
+        if (perfil != null) {
+            argumentos.add("--spring.profiles.active=" + perfil);
+        }
+        return argumentos;
+    }
+
+    private void executarAteFim(String nome, List<String> comando) throws IOException, InterruptedException {
+        Process processo = iniciar(nome, comando);
+        if (!processo.waitFor(ESPERA_MAXIMA.toSeconds(), TimeUnit.SECONDS)) {
+            processo.destroyForcibly();
+            throw new IllegalStateException(nome + " não terminou; ver " + log(nome));
+        }
+        if (processo.exitValue() != 0) {
+            throw new IllegalStateException(nome + " terminou com código " + processo.exitValue() + "; ver " + log(nome));
+        }
+    }
+
+    // Milissegundos do início do processo até a primeira resposta 200
+    private long primeiraResposta(String nome, List<String> comando) throws Exception {
+        int porta;
+        try (ServerSocket livre = new ServerSocket(0)) {
+            porta = livre.getLocalPort();
+        }
+        List<String> comPorta = new ArrayList<>(comando);
+        comPorta.add("--server.port=" + porta);
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/artefatos?limite=1"))
+                .timeout(Duration.ofSeconds(30)).build();
+
+        long inicio = System.nanoTime();
+        Process processo = iniciar(nome, comPorta);
+        try {
+            while (System.nanoTime() - inicio < ESPERA_MAXIMA.toNanos()) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException(nome + " terminou antes de responder; ver " + log(nome));
+                }
+                try {
+                    if (client.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long ms = (System.nanoTime() - inicio) / 1_000_000;
+                        System.out.printf("%-20s primeira resposta em %d ms%n", nome, ms);
+                        return ms;
+                    }
+                } catch (IOException e) {
+                    // Porta ainda fechada
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(nome + " não respondeu em " + ESPERA_MAXIMA + "; ver " + log(nome));
+        } finally {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private Process iniciar(String nome, List<String> comando) throws IOException {
+        return new ProcessBuilder(comando)
+                .directory(trabalho.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log(nome).toFile())
+                .start();
+    }
+
+    private Path log(String nome) {
+        return trabalho.resolve("logs").resolve(nome + ".log");
+    }
+
+    private void relatar(long[] padrao, long[] rapido, long[] rapidoC1) throws IOException {
+        long medianaPadrao = mediana(padrao);
+        String resumo = String.format(Locale.ROOT,
+                "Tempo ate a primeira requisicao (mediana de %d): padrao %d ms, inicio-rapido %d ms (%.1fx), com C1 %d ms (%.1fx)",
+                padrao.length, medianaPadrao, mediana(rapido), (double) medianaPadrao / Math.max(1, mediana(rapido)),
+                mediana(rapidoC1), (double) medianaPadrao / Math.max(1, mediana(rapidoC1)));
+        System.out.println(resumo);
+        String json = String.format(Locale.ROOT, """
+                {
+                  "java": "%s",
+                  "processadores": %d,
+                  "padrao": %s,
+                  "inicioRapido": %s,
+                  "inicioRapidoC1": %s
+                }
+                """, System.getProperty("java.version"), Runtime.getRuntime().availableProcessors(),
+                json(padrao), json(rapido), json(rapidoC1));
+        Files.writeString(trabalho.resolve("resultado.json"), json, StandardCharsets.UTF_8);
+    }
+
+    private static String json(long[] execucoes) {
+        return String.format(Locale.ROOT, "{\"medianaMs\": %d, \"minimoMs\": %d, \"execucoesMs\": %s}",
+                mediana(execucoes), Arrays.stream(execucoes).min().orElse(0), Arrays.toString(execucoes));
+    }
+
+    private static long mediana(long[] valores) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        if (!Files.exists(diretorio)) {
+            return;
+        }
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(caminho);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.portifolio.uniguacu.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Threads de plataforma x virtuais atendendo requisições que bloqueiam: cada uma faz uma consulta pelo pool
+// Hikari (10 conexões, como banco.pool.tamanho-maximo) e depois fica 'envioMs' escrevendo a resposta para
+// um cliente lento (download pelo FileController). Os 400 clientes do JMH passam das 200 threads padrão
+// do Tomcat; no modo plataforma o excedente espera na fila do executor, no virtual cada requisição tem
+// a sua thread. Throughput = requisições/s; SampleTime traz os percentis (p0.99) da latência.
+// mvn -Pbenchmark verify -Djmh.incluir=ThreadsVirtuais
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class ThreadsVirtuaisBenchmark {
+
+    private static final int ARTEFATOS = 1000;
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    // Tempo que a requisição fica presa escrevendo a resposta, sem conexão do banco
+    @Param({"5"})
+    public long envioMs;
+
+    // server.tomcat.threads.max padrão
+    @Param({"200"})
+    public int threadsPlataforma;
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:benchmark_threads;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(10);
+        config.setConnectionTimeout(30_000);
+        dataSource = new HikariDataSource(config);
+        try (Connection conexao = dataSource.getConnection(); Statement comando = conexao.createStatement()) {
+            comando.execute("CREATE TABLE IF NOT EXISTS artefato (id BIGINT PRIMARY KEY, titulo VARCHAR(255), status VARCHAR(20))");
+            comando.execute("DELETE FROM artefato");
+            comando.execute("INSERT INTO artefato SELECT x, 'Projeto ' || x, 'APROVADO' FROM SYSTEM_RANGE(1, " + ARTEFATOS + ")");
+        }
+        executor = modo.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threadsPlataforma);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public String requisicao() throws Exception {
+        return executor.submit(this::atender).get();
+    }
+
+    private String atender() throws SQLException, InterruptedException {
+        String titulo;
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement consulta = conexao.prepareStatement("SELECT titulo FROM artefato WHERE id = ? AND status = 'APROVADO'")) {
+            consulta.setLong(1, ThreadLocalRandom.current().nextLong(1, ARTEFATOS + 1));
+            try (ResultSet linha = consulta.executeQuery()) {
+                titulo = linha.next() ? linha.getString(1) : null;
+            }
+        }
+        Thread.sleep(envioMs);
+        return titulo;
+    }
+}
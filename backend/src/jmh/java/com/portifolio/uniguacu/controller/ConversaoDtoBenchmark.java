@@ -0,0 +1,72 @@
+package com.portifolio.uniguacu.controller;
+
+import com.portifolio.uniguacu.config.DadosSinteticos;
+import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.dto.UsuarioDTO;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.Usuario;
+import com.portifolio.uniguacu.security.UsuarioPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Conversores entidade -> DTO dos controllers, nas listas que os endpoints devolvem
+// (GET /api/users, /api/users/alunos e o POST de comentário no modo síncrono)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConversaoDtoBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int quantidade;
+
+    private final UserController userController = new UserController();
+    private final ComentarioController comentarioController = new ComentarioController();
+
+    private List<Usuario> usuarios;
+    private List<UsuarioPrincipal> principais;
+    private List<Comentario> comentarios;
+
+    @Setup
+    public void setup() {
+        usuarios = DadosSinteticos.usuarios(quantidade);
+        principais = new ArrayList<>(quantidade);
+        for (Usuario usuario : usuarios) {
+            principais.add(new UsuarioPrincipal(usuario));
+        }
+        Artefato artefato = DadosSinteticos.artefatos(1).get(0);
+        artefato.setId(1L);
+        comentarios = DadosSinteticos.comentarios(artefato, quantidade);
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> usuarios() {
+        return usuarios.stream().map(userController::convertToDto).toList();
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> principais() {
+        return principais.stream().map(userController::convertToDto).toList();
+    }
+
+    @Benchmark
+    public List<ComentarioDTO> comentarios() {
+        return comentarios.stream().map(comentarioController::convertToDto).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.portifolio.uniguacu.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portifolio.uniguacu.config.DadosSinteticos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização JSON de listas de Artefato (entidade completa, com descrição e listas de mídia) com o
+// ObjectMapper configurado como o do Spring Boot. 'corpo' gera o byte[] inteiro; 'fluxo' escreve direto
+// num OutputStream, como o conversor HTTP faz na resposta.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializacaoArtefatoBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int quantidade;
+
+    private ObjectWriter writer;
+    private List<Artefato> artefatos;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Artefato.class));
+        artefatos = DadosSinteticos.artefatos(quantidade);
+        for (int i = 0; i < artefatos.size(); i++) {
+            artefatos.get(i).setId(i + 1);
+        }
+    }
+
+    @Benchmark
+    public byte[] corpo() throws IOException {
+        return writer.writeValueAsBytes(artefatos);
+    }
+
+    @Benchmark
+    public void fluxo() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), artefatos);
+    }
+}
@@ -0,0 +1,88 @@
+package com.portifolio.uniguacu.repository;
+
+import com.portifolio.uniguacu.UniguacuApplication;
+import com.portifolio.uniguacu.config.DadosSinteticos;
+import com.portifolio.uniguacu.model.Artefato;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ArtefatoRepository.searchByStatus (listagem pública sem índices em memória) contra o H2 embutido do perfil
+// de teste, com 'quantidade' artefatos sintéticos determinísticos (DadosSinteticos). O contexto Spring sobe
+// uma vez por combinação de parâmetros, sem servidor web.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ArtefatoRepositoryBenchmark {
+
+    private static final String APROVADO = "APROVADO";
+
+    @Param({"1000", "10000"})
+    public int quantidade;
+
+    private ConfigurableApplicationContext contexto;
+    private ArtefatoRepository artefatoRepository;
+
+    @Setup
+    public void setup() {
+        contexto = new SpringApplicationBuilder(UniguacuApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark_" + quantidade
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        artefatoRepository = contexto.getBean(ArtefatoRepository.class);
+        List<Artefato> artefatos = DadosSinteticos.artefatos(quantidade);
+        new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> artefatoRepository.saveAll(artefatos));
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Artefato> semFiltros() {
+        return artefatoRepository.searchByStatus(APROVADO, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Artefato> buscaPorTexto() {
+        return artefatoRepository.searchByStatus(APROVADO, "robô", null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Artefato> cursoESemestre() {
+        return artefatoRepository.searchByStatus(APROVADO, null, "Engenharia de Software", null, null, 5, null, null);
+    }
+
+    // Para comparação: a primeira página da listagem paginada por cursor
+    @Benchmark
+    public List<Artefato> primeiraPaginaComCursor() {
+        return artefatoRepository.searchByStatusAposCursor(APROVADO, null, null, null, null, null, null, null,
+                null, null, 20);
+    }
+}
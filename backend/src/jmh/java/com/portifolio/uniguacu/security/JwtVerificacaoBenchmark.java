@@ -0,0 +1,76 @@
+package com.portifolio.uniguacu.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Custo do JwtTokenProvider: emissão no login e verificação a cada requisição autenticada no JwtAuthenticationFilter
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificacaoBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private SecretKey chave;
+    private String token;
+    private UsernamePasswordAuthenticationToken autenticacao;
+
+    @Setup
+    public void setup() {
+        tokenProvider = new JwtTokenProvider(10_000, Duration.ofMinutes(10));
+        chave = (SecretKey) ReflectionTestUtils.getField(tokenProvider, "jwtSecret");
+        autenticacao = new UsernamePasswordAuthenticationToken("aluno@uniguacu.com", null);
+        token = tokenProvider.generateToken(autenticacao);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(autenticacao);
+    }
+
+    // validateToken e getUsernameFromJWT passam pelo cache de tokens verificados, como no filtro
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromJWT() {
+        return tokenProvider.getUsernameFromJWT(token);
+    }
+
+    // Como o filtro fazia antes: validateToken + getUsernameFromJWT, cada um montando um parser novo
+    @Benchmark
+    public String duasVerificacoesComParserNovo() {
+        Jwts.parserBuilder().setSigningKey(chave).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(chave).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims umaVerificacaoComParserReutilizado() {
+        return tokenProvider.parse(token);
+    }
+
+    @Benchmark
+    public Claims verificarComCache() {
+        return tokenProvider.verificar(token);
+    }
+}
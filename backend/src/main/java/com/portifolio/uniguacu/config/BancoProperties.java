@@ -0,0 +1,42 @@
+package com.portifolio.uniguacu.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "banco") // Pools do primário e das réplicas (ver DatabaseConfig)
+public class BancoProperties {
+
+    // URLs JDBC das réplicas de leitura; vazio = tudo vai para o primário
+    private List<String> replicas = new ArrayList<>();
+
+    // Usuário/senha das réplicas; vazios usam os do primário
+    private String replicaUsername;
+    private String replicaPassword;
+
+    private Pool pool = new Pool();
+    private Pool poolReplica = new Pool();
+
+    @Setter
+    @Getter
+    public static class Pool {
+        private int tamanhoMaximo = 10;
+        private int minimoOcioso = 2;
+        private Duration connectionTimeout = Duration.ofSeconds(5); // Espera por uma conexão livre antes de falhar
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private Duration maxLifetime = Duration.ofMinutes(30); // Abaixo do timeout de conexões ociosas do provedor
+        private Duration leakDetectionThreshold = Duration.ZERO; // > 0 registra conexões presas por mais tempo que isso
+        // Cache de prepared statements por conexão no driver do PostgreSQL
+        private int prepareThreshold = 3;
+        private int preparedStatementCacheQueries = 256;
+        private int preparedStatementCacheSizeMiB = 5;
+    }
+}
@@ -0,0 +1,169 @@
+package com.portifolio.uniguacu.config;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.model.Usuario;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.repository.UsuarioRepository;
+import com.portifolio.uniguacu.service.FileStorageService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Perfil dados-sinteticos: popula um banco vazio com N usuários, M artefatos e K comentários (DadosSinteticos),
+// além de algumas imagens reais para os downloads. Roda antes do ApplicationReadyEvent, então os agregados
+// de avaliação e os índices de busca e facetas são montados depois, já com os dados gerados.
+// Com artefatos já cadastrados não faz nada (o banco não é de teste).
+@Component
+@Profile("dados-sinteticos")
+public class CargaDadosSinteticos implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaDadosSinteticos.class);
+
+    private static final int POR_TRANSACAO = 1000;
+
+    @Value("${dados-sinteticos.usuarios:500}")
+    private int usuarios;
+
+    @Value("${dados-sinteticos.artefatos:5000}")
+    private int artefatos;
+
+    @Value("${dados-sinteticos.comentarios:50000}")
+    private int comentarios;
+
+    @Value("${dados-sinteticos.imagens:20}")
+    private int imagens;
+
+    @Value("${dados-sinteticos.semente:20240601}")
+    private long semente;
+
+    @Value("${dados-sinteticos.senha:senha123}")
+    private String senha;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ArtefatoRepository artefatoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(String... args) {
+        if (artefatoRepository.count() > 0) {
+            log.info("Banco já tem artefatos: dados sintéticos não foram gerados");
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        Random random = new Random(semente);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Uma única codificação: todos os alunos sintéticos entram com a mesma senha
+        List<Usuario> alunos = DadosSinteticos.usuarios(random, usuarios, passwordEncoder.encode(senha));
+        for (int i = 0; i < alunos.size(); i += POR_TRANSACAO) {
+            List<Usuario> lote = alunos.subList(i, Math.min(alunos.size(), i + POR_TRANSACAO));
+            transacao.executeWithoutResult(status -> usuarioRepository.saveAll(lote));
+        }
+
+        List<Artefato> gerados = DadosSinteticos.artefatos(random, artefatos, gravarImagens(random));
+        List<Long> aprovados = new ArrayList<>();
+        for (int i = 0; i < gerados.size(); i += POR_TRANSACAO) {
+            List<Artefato> lote = gerados.subList(i, Math.min(gerados.size(), i + POR_TRANSACAO));
+            transacao.executeWithoutResult(status -> {
+                artefatoRepository.saveAll(lote);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (Artefato artefato : lote) {
+                if (artefato.getStatus() == StatusProjeto.APROVADO) {
+                    aprovados.add(artefato.getId());
+                }
+            }
+        }
+
+        gravarComentarios(random, transacao, aprovados);
+        log.info("Dados sintéticos gerados em {} ms: {} usuários, {} artefatos ({} aprovados), {} comentários",
+                System.currentTimeMillis() - inicio, usuarios, artefatos, aprovados.size(), comentarios);
+    }
+
+    // Comentários só em aprovados, com a popularidade enviesada: a ordem de popularidade é sorteada
+    private void gravarComentarios(Random random, TransactionTemplate transacao, List<Long> aprovados) {
+        if (aprovados.isEmpty() || comentarios <= 0) {
+            return;
+        }
+        List<Long> porPopularidade = new ArrayList<>(aprovados);
+        Collections.shuffle(porPopularidade, random);
+        double[] popularidade = DadosSinteticos.popularidade(porPopularidade.size(), 1.0);
+        int[] qualidade = new int[porPopularidade.size()];
+        for (int i = 0; i < qualidade.length; i++) {
+            qualidade[i] = 1 + random.nextInt(5);
+        }
+        for (int gravados = 0; gravados < comentarios; gravados += POR_TRANSACAO) {
+            int tamanhoLote = Math.min(POR_TRANSACAO, comentarios - gravados);
+            transacao.executeWithoutResult(status -> {
+                for (int i = 0; i < tamanhoLote; i++) {
+                    int posicao = DadosSinteticos.sortearPopular(random, popularidade);
+                    Artefato artefato = entityManager.getReference(Artefato.class, porPopularidade.get(posicao));
+                    Comentario comentario = DadosSinteticos.comentario(random, artefato, qualidade[posicao]);
+                    entityManager.persist(comentario);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    // Imagens PNG pequenas e distintas, gravadas pelo FileStorageService como um upload comum
+    private List<String> gravarImagens(Random random) {
+        List<String> nomes = new ArrayList<>(imagens);
+        for (int i = 0; i < imagens; i++) {
+            BufferedImage imagem = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = imagem.createGraphics();
+            g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xFFFFFF)),
+                    800, 600, new Color(random.nextInt(0xFFFFFF))));
+            g.fillRect(0, 0, 800, 600);
+            g.dispose();
+            try {
+                Path temporario = fileStorageService.criarTemporario("sintetico-");
+                ImageIO.write(imagem, "png", temporario.toFile());
+                nomes.add(fileStorageService.store(temporario, "sintetico-" + (i + 1) + ".png"));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível gerar as imagens sintéticas", e);
+            }
+        }
+        return nomes;
+    }
+}
@@ -0,0 +1,116 @@
+package com.portifolio.uniguacu.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Conta os comandos SQL que o Hibernate prepara durante cada requisição (StatementInspector) e registra
+// a contagem em hibernate.consultas.requisicao, por método e padrão de URI. Um mesmo SQL repetido
+// 'limiar-repeticoes' vezes na requisição é o sinal de N+1 (um SELECT por item de uma lista): conta em
+// hibernate.consultas.repetidas e vai para o log (com o SQL) na primeira vez de cada endpoint.
+// Só o que roda na thread da requisição entra na conta; flusher, importação e exportação ficam de fora.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConsultasPorRequisicao extends OncePerRequestFilter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasPorRequisicao.class);
+
+    private static final ThreadLocal<Contagem> ATUAL = new ThreadLocal<>();
+    private static final int REPETIDOS_LOGADOS_MAXIMO = 1000;
+
+    private final int limiarRepeticoes;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> repetidosLogados = ConcurrentHashMap.newKeySet();
+
+    public ConsultasPorRequisicao(@Value("${metricas.consultas.limiar-repeticoes:10}") int limiarRepeticoes,
+                                  MeterRegistry meterRegistry) {
+        this.limiarRepeticoes = limiarRepeticoes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contagem contagem = ATUAL.get();
+        if (contagem != null) {
+            contagem.total++;
+            contagem.porSql.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Contagem contagem = new Contagem();
+        ATUAL.set(contagem);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ATUAL.remove();
+            registrar(request, contagem);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, Contagem contagem) {
+        // Padrão do handler (/api/artefatos/{id}), para não criar uma série por id
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "desconhecida";
+        DistributionSummary.builder("hibernate.consultas.requisicao")
+                .description("Comandos SQL preparados pelo Hibernate por requisição")
+                .tags("method", request.getMethod(), "uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry)
+                .record(contagem.total);
+
+        boolean repetiu = false;
+        for (Map.Entry<String, Integer> entrada : contagem.porSql.entrySet()) {
+            if (entrada.getValue() < limiarRepeticoes) {
+                continue;
+            }
+            repetiu = true;
+            String chave = request.getMethod() + " " + uri + " " + entrada.getKey();
+            if (repetidosLogados.size() < REPETIDOS_LOGADOS_MAXIMO && repetidosLogados.add(chave)) {
+                log.warn("Provável N+1 em {} {}: o mesmo SQL executou {} vezes ({} comandos na requisição): {}",
+                        request.getMethod(), uri, entrada.getValue(), contagem.total, entrada.getKey());
+            }
+        }
+        if (repetiu) {
+            Counter.builder("hibernate.consultas.repetidas")
+                    .description("Requisições que repetiram o mesmo SQL acima do limiar (provável N+1)")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static final class Contagem {
+        int total;
+        final Map<String, Integer> porSql = new HashMap<>();
+    }
+}
@@ -0,0 +1,190 @@
+package com.portifolio.uniguacu.config;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.model.Usuario;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Gerador determinístico de usuários, artefatos e comentários: a mesma semente produz sempre os mesmos
+// registros (usado pelo perfil dados-sinteticos, pelo teste de carga e pelos benchmarks JMH).
+// As distribuições imitam o catálogo real: cursos e campi com pesos diferentes, mais projetos nos
+// últimos semestres e nos anos recentes, e a maioria aprovada.
+public final class DadosSinteticos {
+
+    public static final long SEMENTE = 20240601L;
+
+    static final String[] CURSOS = {"Engenharia de Software", "Ciência da Computação", "Sistemas de Informação",
+            "Engenharia Civil", "Administração", "Design", "Direito", "Enfermagem"};
+    private static final double[] PESOS_CURSOS = {25, 18, 15, 10, 10, 8, 8, 6};
+    static final String[] CAMPI = {"União da Vitória", "Porto União", "Curitiba"};
+    private static final double[] PESOS_CAMPI = {60, 30, 10};
+    static final String[] CATEGORIAS = {"Aplicativo", "Pesquisa", "Extensão", "TCC", "Protótipo"};
+    private static final double[] PESOS_CATEGORIAS = {30, 20, 15, 25, 10};
+    // Semestres 1 a 10: os projetos se concentram no fim do curso
+    private static final double[] PESOS_SEMESTRES = {2, 3, 5, 7, 9, 10, 12, 16, 20, 16};
+    private static final StatusProjeto[] STATUS = {StatusProjeto.APROVADO, StatusProjeto.PENDENTE, StatusProjeto.REJEITADO};
+    private static final double[] PESOS_STATUS = {85, 12, 3};
+
+    private static final String[] PALAVRAS = {"sistema", "robô", "gestão", "saúde", "agricultura", "energia",
+            "educação", "monitoramento", "plataforma", "sustentável", "inteligente", "dados", "comunidade",
+            "aplicativo", "análise", "automação", "mobilidade", "acessibilidade", "estoque", "clínica"};
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Eduarda", "Felipe", "Gabriela",
+            "Henrique", "Isabela", "João", "Larissa", "Mateus", "Natália", "Otávio", "Paula", "Rafael"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Pereira", "Lima", "Costa",
+            "Ferreira", "Rodrigues", "Almeida", "Nascimento", "Carvalho", "Gomes"};
+    private static final String[] FUNCOES = {"Analista", "Professor", "Gerente", "Engenheiro", "Empresário"};
+
+    private static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+    private static final int DIAS = (int) ChronoUnit.DAYS.between(INICIO, LocalDate.of(2025, 12, 31));
+
+    private DadosSinteticos() {
+    }
+
+    public static List<Artefato> artefatos(int quantidade) {
+        return artefatos(new Random(SEMENTE), quantidade, List.of());
+    }
+
+    // Artefatos sem id, prontos para persistir. 'imagens' são nomes já armazenados (podem faltar)
+    public static List<Artefato> artefatos(Random random, int quantidade, List<String> imagens) {
+        List<Artefato> artefatos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Artefato artefato = new Artefato();
+            artefato.setTitulo(capitalizar(frase(random, 3 + random.nextInt(4))));
+            artefato.setDescricao(capitalizar(frase(random, 40 + random.nextInt(80))) + ".");
+            artefato.setAutor(nome(random));
+            artefato.setCurso(CURSOS[sortear(random, PESOS_CURSOS)]);
+            artefato.setCampus(CAMPI[sortear(random, PESOS_CAMPI)]);
+            artefato.setCategoria(CATEGORIAS[sortear(random, PESOS_CATEGORIAS)]);
+            artefato.setSemestre(1 + sortear(random, PESOS_SEMESTRES));
+            // Raiz quadrada: a densidade cresce com o tempo (mais projetos nos anos recentes)
+            artefato.setDataCriacao(INICIO.plusDays((long) (Math.sqrt(random.nextDouble()) * DIAS)));
+            if (imagens.isEmpty()) {
+                artefato.setUrlImagemPrincipal(String.format("%032x.jpg", random.nextLong() & Long.MAX_VALUE));
+                artefato.setListaImagens("[]");
+            } else {
+                String imagem = imagens.get(random.nextInt(imagens.size()));
+                artefato.setUrlImagemPrincipal(imagem);
+                artefato.setListaImagens("[\"" + imagem + "\"]");
+            }
+            artefato.setListaDocumentos("[]");
+            artefato.setStatus(STATUS[sortear(random, PESOS_STATUS)]);
+            artefatos.add(artefato);
+        }
+        return artefatos;
+    }
+
+    public static List<Usuario> usuarios(int quantidade) {
+        List<Usuario> usuarios = usuarios(new Random(SEMENTE), quantidade, "{sintetico}");
+        for (int i = 0; i < usuarios.size(); i++) {
+            usuarios.get(i).setId((long) i + 1);
+        }
+        return usuarios;
+    }
+
+    // Alunos com emails aluno<n>@sintetico.uniguacu.com e a mesma senha (já codificada) para todos
+    public static List<Usuario> usuarios(Random random, int quantidade, String senhaCodificada) {
+        List<Usuario> usuarios = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNomeCompleto(nome(random));
+            usuario.setEmail(email(i + 1));
+            usuario.setPassword(senhaCodificada);
+            usuario.setCurso(CURSOS[sortear(random, PESOS_CURSOS)]);
+            usuario.setTurno(random.nextInt(10) < 7 ? "Noturno" : "Matutino");
+            usuarios.add(usuario);
+        }
+        return usuarios;
+    }
+
+    public static String email(int numero) {
+        return "aluno" + numero + "@sintetico.uniguacu.com";
+    }
+
+    public static List<Comentario> comentarios(Artefato artefato, int quantidade) {
+        Random random = new Random(SEMENTE);
+        List<Comentario> comentarios = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Comentario comentario = comentario(random, artefato, 1 + random.nextInt(5));
+            comentario.setId((long) i + 1);
+            comentarios.add(comentario);
+        }
+        return comentarios;
+    }
+
+    // Notas em torno da 'qualidade' do artefato (1 a 5), para o ranking ter ordem estável
+    public static Comentario comentario(Random random, Artefato artefato, int qualidade) {
+        Comentario comentario = new Comentario();
+        comentario.setArtefato(artefato);
+        comentario.setNome(nome(random));
+        comentario.setFuncaoEmpresa(random.nextInt(3) == 0 ? FUNCOES[random.nextInt(FUNCOES.length)] : null);
+        comentario.setTexto(capitalizar(frase(random, 10 + random.nextInt(30))) + ".");
+        comentario.setAvaliacaoSolucao(nota(random, qualidade));
+        comentario.setAvaliacaoVideo(nota(random, qualidade));
+        comentario.setAvaliacaoImpacto(nota(random, qualidade));
+        comentario.setDataCriacao(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(random.nextInt(1_000_000)));
+        return comentario;
+    }
+
+    // Popularidade enviesada (Zipf, expoente ~1): poucos artefatos concentram a maioria dos comentários
+    // e das visitas. Devolve os pesos acumulados; a posição i corresponde ao i-ésimo mais popular.
+    public static double[] popularidade(int quantidade, double expoente) {
+        double[] acumulado = new double[quantidade];
+        double soma = 0;
+        for (int i = 0; i < quantidade; i++) {
+            soma += 1.0 / Math.pow(i + 1, expoente);
+            acumulado[i] = soma;
+        }
+        return acumulado;
+    }
+
+    public static int sortearPopular(Random random, double[] acumulado) {
+        int posicao = Arrays.binarySearch(acumulado, random.nextDouble() * acumulado[acumulado.length - 1]);
+        return posicao >= 0 ? posicao : -posicao - 1;
+    }
+
+    private static int sortear(Random random, double[] pesos) {
+        double total = 0;
+        for (double peso : pesos) {
+            total += peso;
+        }
+        double alvo = random.nextDouble() * total;
+        for (int i = 0; i < pesos.length; i++) {
+            alvo -= pesos[i];
+            if (alvo < 0) {
+                return i;
+            }
+        }
+        return pesos.length - 1;
+    }
+
+    private static int nota(Random random, int qualidade) {
+        return (int) Math.max(1, Math.min(5, Math.round(qualidade + random.nextGaussian() * 0.8)));
+    }
+
+    private static String nome(Random random) {
+        return NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+    }
+
+    private static String frase(Random random, int palavras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) {
+                frase.append(' ');
+            }
+            frase.append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+        }
+        return frase.toString();
+    }
+
+    private static String capitalizar(String texto) {
+        return Character.toUpperCase(texto.charAt(0)) + texto.substring(1);
+    }
+}
@@ -2,7 +2,10 @@ package com.portifolio.uniguacu.config;
 
 import com.portifolio.uniguacu.model.Usuario;
 import com.portifolio.uniguacu.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -10,6 +13,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
+    // false no perfil inicio-rapido: o admin já existe e a subida não espera a consulta nem o BCrypt
+    @Value("${admin-padrao.criar:true}")
+    private boolean criar;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -18,6 +27,9 @@ public class DataLoader implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        if (!criar) {
+            return;
+        }
         // Verifica se o admin já existe
         if (!usuarioRepository.findByEmail("admin@uniguacu.com").isPresent()) {
             Usuario admin = new Usuario();
@@ -26,7 +38,7 @@ public class DataLoader implements CommandLineRunner {
             admin.setPassword(passwordEncoder.encode("admin123")); // Senha forte em produção!
             admin.setRole("ROLE_ADMIN");
             usuarioRepository.save(admin);
-            System.out.println("Usuário administrador padrão criado.");
+            log.info("Usuário administrador padrão criado.");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.portifolio.uniguacu.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Com threads virtuais, bloquear dentro de um bloco synchronized (ou de código nativo) prende a thread
+// de plataforma que a carrega: com poucas carregadoras (uma por núcleo) alguns desses bloqueios no
+// caminho do JDBC bastam para parar o servidor. Este monitor assina o evento jdk.VirtualThreadPinned do
+// JFR e registra cada ocorrência acima do limiar no timer threads.virtuais.pinning, com a classe que
+// originou o bloqueio. O stack trace vai para o log só na primeira vez de cada origem.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "threads.virtuais.pinning.habilitado", havingValue = "true", matchIfMissing = true)
+public class DiagnosticoPinning {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticoPinning.class);
+
+    static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final List<String> PACOTES_JDK = List.of("java.", "javax.", "jdk.", "sun.");
+    private static final int FRAMES_NO_LOG = 15;
+
+    private final Duration limiar;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> origensLogadas = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public DiagnosticoPinning(@Value("${threads.virtuais.pinning.limiar:PT0.02S}") Duration limiar,
+                              MeterRegistry meterRegistry) {
+        this.limiar = limiar;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Diagnóstico de pinning de threads virtuais ativo (limiar {} ms)", limiar.toMillis());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void registrar(RecordedEvent evento) {
+        String origem = origem(evento.getStackTrace());
+        Timer.builder("threads.virtuais.pinning")
+                .description("Bloqueios de threads virtuais presas à thread carregadora (synchronized/nativo)")
+                .tag("origem", origem)
+                .register(meterRegistry)
+                .record(evento.getDuration());
+        if (origensLogadas.add(origem)) {
+            log.warn("Thread virtual presa por {} ms em {}:\n{}", evento.getDuration().toMillis(), origem,
+                    frames(evento.getStackTrace()));
+        }
+    }
+
+    // Primeira classe fora do JDK na pilha: quem segurou o monitor (Hibernate, driver, código da aplicação)
+    static String origem(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "desconhecida";
+        }
+        for (RecordedFrame frame : pilha.getFrames()) {
+            String classe = frame.getMethod().getType().getName();
+            if (PACOTES_JDK.stream().noneMatch(classe::startsWith)) {
+                return classe;
+            }
+        }
+        return "jdk";
+    }
+
+    private static String frames(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "\t(sem stack trace)";
+        }
+        return pilha.getFrames().stream().limit(FRAMES_NO_LOG)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.isJavaFrame() ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining("\n"));
+    }
+}
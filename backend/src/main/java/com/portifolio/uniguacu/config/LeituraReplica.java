@@ -0,0 +1,18 @@
+package com.portifolio.uniguacu.config;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Transação somente leitura servida por uma réplica (ver DatabaseConfig). Só para leituras que aceitam
+// dados alguns instantes atrás do primário, como relatórios; sem réplicas configuradas vai para o primário.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true, label = DatabaseConfig.LEITURA_REPLICA)
+public @interface LeituraReplica {
+}
@@ -0,0 +1,106 @@
+package com.portifolio.uniguacu.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Primeiro filtro da cadeia: põe um id de correlação no MDC (correlacaoId, impresso em toda linha de log da
+// requisição) e o devolve no cabeçalho X-Correlation-Id; um id válido recebido do proxy/cliente é reaproveitado.
+// Também faz o log de acesso (logger "acesso") por amostragem: 'amostragem' das requisições comuns, todas as
+// lentas e todas as com erro 5xx, para o log não crescer com o tráfego dos endpoints mais chamados.
+// Expõe em logging.async.fila quantos eventos estão esperando nos appenders assíncronos (logback-spring.xml).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RegistroRequisicoes extends OncePerRequestFilter implements MeterBinder {
+
+    static final String CABECALHO = "X-Correlation-Id";
+    static final String MDC_CORRELACAO = "correlacaoId";
+
+    private static final Logger acesso = LoggerFactory.getLogger("acesso");
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double amostragem;
+    private final long lentaNanos;
+
+    public RegistroRequisicoes(@Value("${logging.acesso.amostragem:0.01}") double amostragem,
+                               @Value("${logging.acesso.lenta:PT1S}") Duration lenta) {
+        this.amostragem = amostragem;
+        this.lentaNanos = lenta.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String recebido = request.getHeader(CABECALHO);
+        // Só aceita ids curtos e sem caracteres de controle: o valor vai para o log e para a resposta
+        String correlacao = recebido != null && ID_VALIDO.matcher(recebido).matches() ? recebido : novoId();
+        MDC.put(MDC_CORRELACAO, correlacao);
+        response.setHeader(CABECALHO, correlacao);
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            registrar(request, response, System.nanoTime() - inicio);
+            MDC.remove(MDC_CORRELACAO);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, long nanos) {
+        if (!acesso.isInfoEnabled()) {
+            return;
+        }
+        int status = response.getStatus();
+        boolean lenta = nanos >= lentaNanos;
+        if (!lenta && status < 500 && ThreadLocalRandom.current().nextDouble() >= amostragem) {
+            return;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        acesso.info("{} {} ({}) {} em {} ms{}", request.getMethod(), request.getRequestURI(),
+                padrao != null ? padrao : "-", status, nanos / 1_000_000, lenta ? " [lenta]" : "");
+    }
+
+    // 16 dígitos hexadecimais: sem o SecureRandom do UUID.randomUUID() no caminho de toda requisição
+    private static String novoId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders = contexto.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof AsyncAppenderBase<ILoggingEvent> assincrono) {
+                Gauge.builder("logging.async.fila", assincrono, AsyncAppenderBase::getNumberOfElementsInQueue)
+                        .description("Eventos de log esperando o appender assíncrono")
+                        .tag("appender", assincrono.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package com.portifolio.uniguacu.config;
 
+import com.portifolio.uniguacu.security.BCryptLimitadoPasswordEncoder;
 import com.portifolio.uniguacu.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.Arrays;
 
 import static org.springframework.security.config.Customizer.withDefaults;
@@ -31,14 +42,25 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // Token fixo para o Prometheus coletar /actuator/prometheus (Authorization: Bearer <token>); vazio = só ADMIN
+    @Value("${metricas.prometheus.token:}")
+    private String tokenPrometheus;
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    // BCrypt em pool dedicado e limitado (ver BCryptLimitadoPasswordEncoder); 0 threads = número de núcleos
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${seguranca.bcrypt.forca:10}") int forca,
+                                           @Value("${seguranca.bcrypt.threads:0}") int threads,
+                                           @Value("${seguranca.bcrypt.fila:64}") int fila,
+                                           @Value("${seguranca.bcrypt.espera-maxima:PT5S}") Duration esperaMaxima,
+                                           @Value("${seguranca.bcrypt.retry-after-segundos:2}") long retryAfterSegundos,
+                                           MeterRegistry meterRegistry) {
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BCryptLimitadoPasswordEncoder(forca, tamanhoPool, fila, esperaMaxima, retryAfterSegundos, meterRegistry);
     }
 
     @Bean
@@ -98,15 +120,24 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         // Permite requisições OPTIONS (preflight CORS) antes de tudo
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Página de erro do Spring Boot: sem isso todo 400/404/429 chega ao cliente como 403
+                        .requestMatchers("/error").permitAll()
+                        // Redespacho assíncrono (ex.: StreamingResponseBody da exportação): a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // --- Endpoints Públicos ---
                         .requestMatchers("/api/auth/**").permitAll() // Login/Registro
                         .requestMatchers(HttpMethod.GET, "/api/artefatos").permitAll() // Listar artefatos APROVADOS
+                        .requestMatchers(HttpMethod.GET, "/api/artefatos/ranking").permitAll() // Ranking por avaliação
+                        .requestMatchers(HttpMethod.GET, "/api/artefatos/exportacao").hasRole("ADMIN") // Exportação NDJSON (antes de {id})
                         .requestMatchers(HttpMethod.GET, "/api/artefatos/{id}").permitAll() // Ver detalhe de um artefato
                         .requestMatchers(HttpMethod.GET, "/api/users").permitAll() // Listar usuários (alunos)
                         .requestMatchers(HttpMethod.GET, "/api/users/alunos").permitAll() // Listar apenas alunos
+                        .requestMatchers("/api/files/uploads/**").authenticated() // Upload em partes (antes do GET público de arquivos)
                         .requestMatchers(HttpMethod.GET, "/api/files/**").permitAll() // Ver imagens/documentos
+                        .requestMatchers(HttpMethod.HEAD, "/api/files/**").permitAll() // Validação de cache (CDN/navegador)
                         .requestMatchers(HttpMethod.GET, "/api/artefatos/{artefatoId}/comentarios").permitAll() // Ver comentários
                         .requestMatchers(HttpMethod.POST, "/api/artefatos/{artefatoId}/comentarios").permitAll() // Deixar comentário (público)
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll() // Health check da plataforma
 
                         // --- Endpoints de Usuário Logado ---
                         .requestMatchers(HttpMethod.POST, "/api/artefatos").authenticated() // Criar artefato
@@ -117,9 +148,12 @@ public class SecurityConfig {
 
                         // --- Endpoints de Admin ---
                         .requestMatchers(HttpMethod.GET, "/api/artefatos/pendentes").hasRole("ADMIN") // Ver pendentes
+                        .requestMatchers(HttpMethod.POST, "/api/artefatos/importacao").hasRole("ADMIN") // Importação em massa
                         .requestMatchers(HttpMethod.PUT, "/api/artefatos/{id}/aprovar").hasRole("ADMIN") // Aprovar
                         .requestMatchers(HttpMethod.PUT, "/api/artefatos/{id}").hasRole("ADMIN") // Editar qualquer artefato
                         .requestMatchers(HttpMethod.DELETE, "/api/artefatos/{id}").hasRole("ADMIN") // Deletar qualquer artefato
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").access(coletaPrometheus()) // Coleta do Prometheus (token ou ADMIN)
+                        .requestMatchers(HttpMethod.GET, "/actuator/**").hasRole("ADMIN") // Métricas (ex.: memória do índice de facetas)
 
                         // Nega qualquer outra requisição não listada
                         .anyRequest().denyAll()
@@ -129,4 +163,19 @@ public class SecurityConfig {
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    private AuthorizationManager<RequestAuthorizationContext> coletaPrometheus() {
+        byte[] esperado = ("Bearer " + tokenPrometheus).getBytes(StandardCharsets.UTF_8);
+        return (autenticacao, contexto) -> {
+            String cabecalho = contexto.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+            boolean tokenConfere = !tokenPrometheus.isEmpty() && cabecalho != null
+                    && MessageDigest.isEqual(esperado, cabecalho.getBytes(StandardCharsets.UTF_8));
+            return new AuthorizationDecision(tokenConfere || admin(autenticacao.get()));
+        };
+    }
+
+    private static boolean admin(Authentication autenticacao) {
+        return autenticacao != null && autenticacao.getAuthorities().stream()
+                .anyMatch(autoridade -> "ROLE_ADMIN".equals(autoridade.getAuthority()));
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Setter
 @Getter
 @Configuration
@@ -13,4 +15,11 @@ public class StorageProperties {
 
     private String location = "upload-dir"; // Nome do diretório padrão
 
-}
\ No newline at end of file
+    // true: arquivos salvos como ab/cd/<sha256>.<ext> e deduplicados pelo conteúdo
+    // false: nome UUID na raiz do diretório (modo antigo)
+    private boolean enderecadoPorConteudo = true;
+
+    // Uploads que ninguém passou a citar nesse prazo são apagados (ex.: formulário abandonado depois do envio)
+    private Duration prazoNaoCitados = Duration.ofHours(24);
+
+}
@@ -0,0 +1,47 @@
+package com.portifolio.uniguacu.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Com AOT (perfil inicio-rapido) as condições são avaliadas no process-aot: Tomcat, executor assíncrono,
+// agendador e DiagnosticoPinning ficam com o tipo de thread do build, enquanto ComentarioIngestaoService e
+// UploadParticionadoService leem spring.threads.virtual.enabled na subida. O marcador abaixo também é
+// condicional, então guarda a escolha do build; se a subida pedir outra, a aplicação não sobe misturada.
+// Sem AOT as duas avaliações acontecem na subida e sempre coincidem.
+@Configuration(proxyBeanMethods = false)
+public class ThreadsVirtuaisAot {
+
+    record ThreadsNoBuild(boolean virtuais) {
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    ThreadsNoBuild threadsVirtuaisNoBuild() {
+        return new ThreadsNoBuild(true);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadsNoBuild threadsPlataformaNoBuild() {
+        return new ThreadsNoBuild(false);
+    }
+
+    @Bean
+    InitializingBean conferirThreadsDoBuild(ThreadsNoBuild noBuild, Environment environment) {
+        return () -> conferir(noBuild.virtuais(), environment);
+    }
+
+    static void conferir(boolean virtuaisNoBuild, Environment environment) {
+        boolean virtuaisNaSubida = Threading.VIRTUAL.isActive(environment);
+        if (virtuaisNaSubida != virtuaisNoBuild) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=" + virtuaisNaSubida
+                    + " na subida, mas o processamento AOT foi feito com " + virtuaisNoBuild
+                    + ". Gere a imagem de novo com -Daot.jvm-argumentos=-Dspring.threads.virtual.enabled="
+                    + virtuaisNaSubida + " (ou ajuste THREADS_VIRTUAIS).");
+        }
+    }
+}
@@ -1,17 +1,43 @@
 package com.portifolio.uniguacu.controller;
 
+import com.portifolio.uniguacu.dto.ImportacaoResultadoDTO;
+import com.portifolio.uniguacu.dto.PaginaDTO;
 import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
 import com.portifolio.uniguacu.model.StatusProjeto; // Importa o Enum
 import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.service.ArtefatoProjecaoService;
+import com.portifolio.uniguacu.service.ArtefatoService;
+import com.portifolio.uniguacu.service.AvaliacaoService;
+import com.portifolio.uniguacu.service.CatalogoVersaoService;
+import com.portifolio.uniguacu.service.ComentarioIngestaoService;
+import com.portifolio.uniguacu.service.BuscaService;
+import com.portifolio.uniguacu.service.ExportacaoService;
+import com.portifolio.uniguacu.service.FacetaIndexService;
+import com.portifolio.uniguacu.service.FileStorageService;
+import com.portifolio.uniguacu.service.ImportacaoService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/artefatos")
@@ -20,29 +46,226 @@ public class ArtefatoController {
     @Autowired
     private ArtefatoRepository artefatoRepository;
 
+    @Autowired
+    private ArtefatoService artefatoService;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private FacetaIndexService facetaIndexService;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    // ObjectProvider: os serviços são @Lazy e só são criados no primeiro getObject()
+    @Autowired
+    private ObjectProvider<ImportacaoService> importacaoService;
+
+    @Autowired
+    private ObjectProvider<ExportacaoService> exportacaoService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ArtefatoProjecaoService artefatoProjecaoService;
+
+    @Autowired
+    private CatalogoVersaoService catalogoVersaoService;
+
+    @Autowired
+    private ComentarioIngestaoService comentarioIngestaoService;
+
+    private static final int TAMANHO_PAGINA_PADRAO = 20;
+    private static final int TAMANHO_PAGINA_MAXIMO = 100;
+    private static final String CURSOR_RELEVANCIA = "relevancia";
+    private static final int RANKING_LIMITE_PADRAO = 10;
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     // Lista apenas projetos APROVADOS para a visão pública (Home)
+    // Sem 'cursor', 'limite' nem 'facetas' devolve a lista completa (comportamento original);
+    // com qualquer um deles devolve uma página e o cursor 'next' para continuar.
+    // Cada item traz só o resumo do card; 'fields' (ex.: titulo,descricao) escolhe as colunas lidas e devolvidas.
+    // O ETag é a versão do catálogo: If-None-Match igual responde 304 antes de qualquer consulta.
     @GetMapping
-    public List<Artefato> listarAprovados(
+    public ResponseEntity<?> listarAprovados(
             @RequestParam(required = false) String busca,
             @RequestParam(required = false) String curso,
             @RequestParam(required = false) String campus,
             @RequestParam(required = false) String categoria,
             @RequestParam(required = false) Integer semestre,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean facetas,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest
     ) {
-        // CORREÇÃO: Chama o método 'searchByStatus' e passa o Enum APROVADO como String
-        return artefatoRepository.searchByStatus(
+        if (Versionamento.naoModificado(webRequest, catalogoVersaoService.etagCatalogo())) {
+            return null;
+        }
+        List<String> campos = artefatoProjecaoService.campos(fields, ArtefatoProjecaoService.RESUMO);
+        boolean paginado = cursor != null || limite != null || facetas;
+        int tamanho = limite == null ? TAMANHO_PAGINA_PADRAO : Math.max(1, Math.min(limite, TAMANHO_PAGINA_MAXIMO));
+
+        // Com texto de busca, o índice de texto completo decide quais projetos entram e em que ordem
+        // (relevância). O LIKE do repositório só é usado enquanto o índice ainda está sendo montado.
+        if (StringUtils.hasText(busca) && buscaService.isPronto()) {
+            int inicio = cursor == null ? 0 : (int) decodificarCursorRelevancia(cursor);
+            int quantidade = paginado ? tamanho + 1 : Integer.MAX_VALUE - inicio;
+            List<Long> ids = buscaService.buscar(busca, StatusProjeto.APROVADO.name(),
+                    curso, campus, categoria, semestre, dataInicial, dataFinal, inicio, quantidade);
+            if (!paginado) {
+                return ResponseEntity.ok(carregarNaOrdem(ids, campos));
+            }
+            String next = null;
+            if (ids.size() > tamanho) {
+                ids = ids.subList(0, tamanho);
+                next = CursorKeyset.codificar(CURSOR_RELEVANCIA, inicio + tamanho);
+            }
+            PaginaDTO<Map<String, Object>> pagina = new PaginaDTO<>(carregarNaOrdem(ids, campos), next);
+            if (facetas && facetaIndexService.isPronto()) {
+                pagina.setFacetas(facetaIndexService.contar(curso, campus, categoria, semestre,
+                        dataInicial, dataFinal, idsDaBusca(busca)));
+            }
+            return ResponseEntity.ok(pagina);
+        }
+
+        LocalDate cursorData = null;
+        Long cursorId = null;
+        if (cursor != null) {
+            CursorKeyset posicao = CursorKeyset.decodificar(cursor);
+            try {
+                cursorData = posicao.getChave() == null ? null : LocalDate.parse(posicao.getChave());
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+            }
+            cursorId = posicao.getId();
+        }
+
+        // Sem texto de busca os filtros são todos facetas ou datas: o índice de bitmaps resolve
+        // quais ids entram na página sem ir ao banco, que só é consultado pela chave primária
+        if (!StringUtils.hasText(busca) && facetaIndexService.isPronto()) {
+            List<Long> ids = facetaIndexService.buscarIds(curso, campus, categoria, semestre, dataInicial, dataFinal,
+                    cursorData, cursorId, paginado ? tamanho + 1 : Integer.MAX_VALUE);
+            if (!paginado) {
+                return ResponseEntity.ok(carregarNaOrdem(ids, campos));
+            }
+            String next = null;
+            if (ids.size() > tamanho) {
+                ids = ids.subList(0, tamanho);
+                Long ultimo = ids.get(tamanho - 1);
+                next = CursorKeyset.codificar(facetaIndexService.dataCriacao(ultimo), ultimo);
+            }
+            PaginaDTO<Map<String, Object>> pagina = new PaginaDTO<>(carregarNaOrdem(ids, campos), next);
+            if (facetas) {
+                pagina.setFacetas(facetaIndexService.contar(curso, campus, categoria, semestre,
+                        dataInicial, dataFinal, null));
+            }
+            return ResponseEntity.ok(pagina);
+        }
+
+        // Daqui em diante só enquanto os índices ainda estão sendo montados: a busca por LIKE carrega
+        // as entidades inteiras e a projeção é feita em memória
+        if (!paginado) {
+            // CORREÇÃO: Chama o método 'searchByStatus' e passa o Enum APROVADO como String
+            return ResponseEntity.ok(artefatoProjecaoService.projetar(artefatoRepository.searchByStatus(
+                    StatusProjeto.APROVADO.name(),
+                    busca, curso, campus, categoria, semestre, dataInicial, dataFinal
+            ), campos));
+        }
+
+        // Busca um item a mais só para saber se existe próxima página
+        List<Artefato> itens = artefatoRepository.searchByStatusAposCursor(
                 StatusProjeto.APROVADO.name(),
-                busca, curso, campus, categoria, semestre, dataInicial, dataFinal
+                busca, curso, campus, categoria, semestre, dataInicial, dataFinal,
+                cursorData, cursorId, tamanho + 1
         );
+
+        String next = null;
+        if (itens.size() > tamanho) {
+            itens = itens.subList(0, tamanho);
+            Artefato ultimo = itens.get(tamanho - 1);
+            next = CursorKeyset.codificar(ultimo.getDataCriacao(), ultimo.getId());
+        }
+        return ResponseEntity.ok(new PaginaDTO<>(artefatoProjecaoService.projetar(itens, campos), next));
+    }
+
+    // Na busca por relevância o cursor guarda apenas a posição no ranking
+    private long decodificarCursorRelevancia(String cursor) {
+        CursorKeyset posicao = CursorKeyset.decodificar(cursor);
+        if (!CURSOR_RELEVANCIA.equals(posicao.getChave()) || posicao.getId() < 0 || posicao.getId() > Integer.MAX_VALUE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+        }
+        return posicao.getId();
+    }
+
+    // Todos os aprovados que casam com o texto, sem os demais filtros: as contagens de facetas aplicam os filtros
+    private BitSet idsDaBusca(String busca) {
+        BitSet ids = new BitSet();
+        for (Long id : buscaService.buscar(busca, StatusProjeto.APROVADO.name(),
+                null, null, null, null, null, null, 0, Integer.MAX_VALUE)) {
+            if (id <= Integer.MAX_VALUE) {
+                ids.set(id.intValue());
+            }
+        }
+        return ids;
+    }
+
+    // Lê as colunas pedidas dos artefatos pelos ids, mantendo a ordem recebida (ex.: ranking da busca).
+    // Descarta o que deixou de estar APROVADO desde a última atualização do índice.
+    private List<Map<String, Object>> carregarNaOrdem(List<Long> ids, List<String> campos) {
+        return artefatoProjecaoService.porIds(ids, campos, StatusProjeto.APROVADO);
+    }
+
+    // Top-N projetos aprovados pela média de uma dimensão (solucao, video ou impacto).
+    // Lê só a tabela de agregados; 'minimoAvaliacoes' evita que uma única nota 5 lidere o ranking.
+    @GetMapping("/ranking")
+    public List<Map<String, Object>> ranking(
+            @RequestParam(defaultValue = "solucao") String dimensao,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "1") long minimoAvaliacoes,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest
+    ) {
+        if (Versionamento.naoModificado(webRequest, catalogoVersaoService.etagCatalogo())) {
+            return null;
+        }
+        List<String> campos = artefatoProjecaoService.campos(fields, ArtefatoProjecaoService.RESUMO);
+        if (!AvaliacaoService.DIMENSOES.contains(dimensao)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Dimensão inválida. Use uma de: " + String.join(", ", AvaliacaoService.DIMENSOES));
+        }
+        int tamanho = limite == null ? RANKING_LIMITE_PADRAO : Math.max(1, Math.min(limite, TAMANHO_PAGINA_MAXIMO));
+
+        List<AvaliacaoAgregada> agregados = avaliacaoService.ranking(dimensao, Math.max(0, minimoAvaliacoes), tamanho);
+        List<Long> ids = new ArrayList<>(agregados.size());
+        for (AvaliacaoAgregada agregado : agregados) {
+            ids.add(agregado.getArtefatoId());
+        }
+        return artefatoProjecaoService.porIds(ids, campos, null);
     }
 
-    // Busca um artefato específico pelo ID (para a página de detalhes)
+    // Busca um artefato específico pelo ID (para a página de detalhes).
+    // Sem 'fields' devolve o artefato completo; com ele, só as colunas pedidas.
     @GetMapping("/{id}")
-    public ResponseEntity<Artefato> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<?> buscarPorId(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                         ServletWebRequest webRequest) {
+        if (Versionamento.naoModificado(webRequest, catalogoVersaoService.etagArtefato(id))) {
+            return null;
+        }
+        if (StringUtils.hasText(fields)) {
+            List<Map<String, Object>> itens = artefatoProjecaoService.porIds(List.of(id),
+                    artefatoProjecaoService.campos(fields, ArtefatoProjecaoService.CAMPOS), null);
+            return itens.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(itens.get(0));
+        }
         return artefatoRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(artefato -> {
+                    artefato.setAvaliacoes(avaliacaoService.buscar(id));
+                    return ResponseEntity.ok(artefato);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -53,35 +276,24 @@ public class ArtefatoController {
             artefato.setDataCriacao(LocalDate.now());
         }
         artefato.setStatus(StatusProjeto.PENDENTE); // Define o status usando o Enum
-        Artefato savedArtefato = artefatoRepository.save(artefato);
+        Artefato savedArtefato = artefatoService.criar(artefato);
+        buscaService.indexar(savedArtefato);
+        facetaIndexService.indexar(savedArtefato);
+        catalogoVersaoService.registrarAlteracao(savedArtefato.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedArtefato);
     }
 
     // Atualiza um artefato (usado pelo Admin na página de edição)
     @PutMapping("/{id}")
     public ResponseEntity<Artefato> atualizarArtefato(@PathVariable Long id, @RequestBody Artefato artefatoDetalhes) {
-        return artefatoRepository.findById(id)
-                .map(artefatoExistente -> {
-                    // Atualiza os campos básicos
-                    artefatoExistente.setTitulo(artefatoDetalhes.getTitulo());
-                    artefatoExistente.setDescricao(artefatoDetalhes.getDescricao());
-                    artefatoExistente.setAutor(artefatoDetalhes.getAutor());
-
-                    // Atualiza os novos campos de mídia
-                    artefatoExistente.setUrlImagemPrincipal(artefatoDetalhes.getUrlImagemPrincipal());
-                    artefatoExistente.setListaImagens(artefatoDetalhes.getListaImagens());
-                    artefatoExistente.setListaDocumentos(artefatoDetalhes.getListaDocumentos());
-                    artefatoExistente.setVideoYoutubeUrl(artefatoDetalhes.getVideoYoutubeUrl());
-
-                    // Atualiza os campos de filtro
-                    artefatoExistente.setCurso(artefatoDetalhes.getCurso());
-                    artefatoExistente.setCampus(artefatoDetalhes.getCampus());
-                    artefatoExistente.setCategoria(artefatoDetalhes.getCategoria());
-                    artefatoExistente.setSemestre(artefatoDetalhes.getSemestre());
-
-                    // IMPORTANTE: O status NÃO é atualizado aqui
-
-                    Artefato atualizado = artefatoRepository.save(artefatoExistente);
+        return artefatoService.atualizar(id, artefatoDetalhes)
+                .map(alteracao -> {
+                    Artefato atualizado = alteracao.artefato();
+                    // Arquivos que saíram do artefato devolvem a referência (os novos já ganharam a sua)
+                    alteracao.arquivosRemovidos().forEach(fileStorageService::liberar);
+                    buscaService.indexar(atualizado);
+                    facetaIndexService.indexar(atualizado);
+                    catalogoVersaoService.registrarAlteracao(id);
                     return ResponseEntity.ok(atualizado);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -90,9 +302,13 @@ public class ArtefatoController {
     // Deleta um artefato (usado pelo Admin)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletarArtefato(@PathVariable Long id) {
-        return artefatoRepository.findById(id)
-                .map(artefato -> {
-                    artefatoRepository.deleteById(id);
+        return artefatoService.deletar(id)
+                .map(arquivos -> {
+                    arquivos.forEach(fileStorageService::liberar);
+                    comentarioIngestaoService.esquecerArtefato(id);
+                    buscaService.remover(id);
+                    facetaIndexService.remover(id);
+                    catalogoVersaoService.registrarAlteracao(id);
                     return ResponseEntity.ok().build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -100,24 +316,56 @@ public class ArtefatoController {
 
     // --- ENDPOINTS PARA ADMIN ---
 
+    // Importação em massa (ex.: projetos de um semestre anterior): NDJSON (um artefato por linha)
+    // ou CSV com cabeçalho, lidos em streaming. Devolve o relatório com os erros de cada linha.
+    @PostMapping(value = "/importacao", consumes = {MEDIA_TYPE_NDJSON, "text/csv"})
+    public ImportacaoResultadoDTO importarArtefatos(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "APROVADO") StatusProjeto status,
+            InputStream corpo
+    ) throws IOException {
+        if (MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))) {
+            return importacaoService.getObject().importarNdjson(corpo, status);
+        }
+        return importacaoService.getObject().importarCsv(corpo, status);
+    }
+
+    // Exportação do catálogo aprovado em NDJSON para os relatórios: escrita em streaming enquanto
+    // o banco é lido por cursor, sem montar a lista inteira em memória
+    @GetMapping(value = "/exportacao", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportarAprovados(
+            @RequestParam(defaultValue = "false") boolean comentarios,
+            @RequestParam(defaultValue = "true") boolean avaliacoes
+    ) {
+        StreamingResponseBody corpo = saida -> exportacaoService.getObject().exportar(saida, comentarios, avaliacoes);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"artefatos.ndjson\"")
+                .body(corpo);
+    }
+
     // Lista projetos PENDENTES (para um painel de admin futuro)
+    // Mesmo resumo das listas públicas; 'fields' escolhe outras colunas
     @GetMapping("/pendentes")
     // @PreAuthorize("hasRole('ADMIN')")
-    public List<Artefato> listarPendentes() {
-        return artefatoRepository.findByStatus(StatusProjeto.PENDENTE); // Usa o Enum
+    public List<Map<String, Object>> listarPendentes(@RequestParam(required = false) String fields,
+                                                     ServletWebRequest webRequest) {
+        if (Versionamento.naoModificado(webRequest, catalogoVersaoService.etagCatalogo())) {
+            return null;
+        }
+        return artefatoProjecaoService.porStatus(StatusProjeto.PENDENTE, // Usa o Enum
+                artefatoProjecaoService.campos(fields, ArtefatoProjecaoService.RESUMO));
     }
 
     // Endpoint para APROVAR um projeto (usado pelo Admin)
     @PutMapping("/{id}/aprovar")
     // @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Artefato> aprovarArtefato(@PathVariable Long id) {
-        return artefatoRepository.findById(id)
-                .map(artefato -> {
-                    if (artefato.getStatus() != StatusProjeto.PENDENTE) { // Compara com Enum
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Projeto não está pendente para aprovação.");
-                    }
-                    artefato.setStatus(StatusProjeto.APROVADO); // Define com Enum
-                    Artefato aprovado = artefatoRepository.save(artefato);
+        return artefatoService.aprovar(id)
+                .map(aprovado -> {
+                    buscaService.indexar(aprovado);
+                    facetaIndexService.indexar(aprovado);
+                    catalogoVersaoService.registrarAlteracao(id);
                     return ResponseEntity.ok(aprovado);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -4,13 +4,17 @@ import com.portifolio.uniguacu.dto.JwtAuthResponse;
 import com.portifolio.uniguacu.dto.LoginRequest;
 import com.portifolio.uniguacu.dto.RegisterRequest;
 import com.portifolio.uniguacu.dto.UsuarioDTO;
+import com.portifolio.uniguacu.exception.SobrecargaException;
 import com.portifolio.uniguacu.model.Usuario;
 import com.portifolio.uniguacu.repository.UsuarioRepository;
 import com.portifolio.uniguacu.security.JwtTokenProvider;
+import com.portifolio.uniguacu.security.PrincipalCache;
+import com.portifolio.uniguacu.security.UsuarioPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,17 +40,34 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @PostMapping("/login")
     public ResponseEntity<JwtAuthResponse> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getEmail(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            // O provider embrulha o que escapa da busca do usuário; BCrypt sem capacidade (inclusive o hash
+            // de mentira de um email inexistente) continua 429 + Retry-After, não credencial recusada
+            if (e.getCause() instanceof SobrecargaException sobrecarga) {
+                throw sobrecarga;
+            }
+            throw e;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.generateToken(authentication);
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal) {
+            // Já deixa o usuário no cache: a primeira requisição com o token novo não vai ao banco
+            principalCache.colocar(principal);
+        }
         return ResponseEntity.ok(new JwtAuthResponse(jwt));
     }
 
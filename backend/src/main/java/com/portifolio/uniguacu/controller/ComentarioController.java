@@ -1,20 +1,26 @@
 package com.portifolio.uniguacu.controller;
 
 import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.dto.PaginaDTO;
 import com.portifolio.uniguacu.model.Artefato;
 import com.portifolio.uniguacu.model.Comentario;
 import com.portifolio.uniguacu.repository.ArtefatoRepository;
 import com.portifolio.uniguacu.repository.ComentarioRepository;
+import com.portifolio.uniguacu.service.AvaliacaoService;
+import com.portifolio.uniguacu.service.CatalogoVersaoService;
+import com.portifolio.uniguacu.service.ComentarioIngestaoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/artefatos/{artefatoId}/comentarios")
@@ -26,21 +32,116 @@ public class ComentarioController {
     @Autowired
     private ArtefatoRepository artefatoRepository; // Para buscar o Artefato
 
+    @Autowired
+    private AvaliacaoService avaliacaoService; // Grava o comentário junto com os agregados de nota
+
+    @Autowired
+    private ComentarioIngestaoService comentarioIngestaoService; // Gravação em lote (write-behind)
+
+    @Autowired
+    private CatalogoVersaoService catalogoVersaoService; // ETag das listas (304 sem consultar o banco)
+
+    private static final int TAMANHO_PAGINA_PADRAO = 20;
+    private static final int TAMANHO_PAGINA_MAXIMO = 100;
+    private static final int TAMANHO_MAXIMO_VARCHAR = 255;
+
     // GET /api/artefatos/{artefatoId}/comentarios - Lista comentários de um projeto
+    // Sem 'cursor' nem 'limite' devolve a lista completa (comportamento original);
+    // com qualquer um deles devolve uma página, o cursor 'next' e o total de comentários
     @GetMapping
-    public List<ComentarioDTO> getComentariosByArtefato(@PathVariable Long artefatoId) {
+    public ResponseEntity<?> getComentariosByArtefato(
+            @PathVariable Long artefatoId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            ServletWebRequest webRequest
+    ) {
+        if (Versionamento.naoModificado(webRequest, catalogoVersaoService.etagArtefato(artefatoId))) {
+            return null;
+        }
+        if (cursor == null && limite == null) {
+            List<ComentarioDTO> comentarios = comentarioRepository.findTodosDto(artefatoId);
+            if (comentarios.isEmpty()) {
+                garantirQueExiste(artefatoId);
+            }
+            return ResponseEntity.ok(comentarios);
+        }
+
+        int tamanho = limite == null ? TAMANHO_PAGINA_PADRAO : Math.max(1, Math.min(limite, TAMANHO_PAGINA_MAXIMO));
+
+        // Busca um item a mais só para saber se existe próxima página
+        List<ComentarioDTO> itens;
+        if (cursor == null) {
+            itens = comentarioRepository.findPrimeiraPagina(artefatoId, Limit.of(tamanho + 1));
+        } else {
+            CursorKeyset posicao = CursorKeyset.decodificar(cursor);
+            LocalDateTime cursorData;
+            if (posicao.getChave() == null) {
+                // Comentários sempre são gravados com data; cursor sem ela não saiu daqui
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+            }
+            try {
+                cursorData = LocalDateTime.parse(posicao.getChave());
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+            }
+            itens = comentarioRepository.findPaginaAposCursor(artefatoId, cursorData, posicao.getId(), Limit.of(tamanho + 1));
+        }
+
+        // A existência do artefato só precisa ser conferida quando a página vem vazia
+        if (itens.isEmpty()) {
+            garantirQueExiste(artefatoId);
+        }
+
+        String next = null;
+        if (itens.size() > tamanho) {
+            itens = itens.subList(0, tamanho);
+            ComentarioDTO ultimo = itens.get(tamanho - 1);
+            next = CursorKeyset.codificar(ultimo.getDataCriacao(), ultimo.getId());
+        }
+        PaginaDTO<ComentarioDTO> pagina = new PaginaDTO<>(itens, next);
+        // O total vem do agregado de avaliações (uma linha pela chave primária), não de um COUNT(*)
+        pagina.setTotal(avaliacaoService.buscar(artefatoId).getTotalComentarios());
+        return ResponseEntity.ok(pagina);
+    }
+
+    private void garantirQueExiste(Long artefatoId) {
         if (!artefatoRepository.existsById(artefatoId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Artefato não encontrado");
         }
-        return comentarioRepository.findByArtefatoIdOrderByDataCriacaoDesc(artefatoId)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
     }
 
     // POST /api/artefatos/{artefatoId}/comentarios - Adiciona um novo comentário
+    // Com o write-behind ligado o comentário é gravado em lote: 201 quando já foi gravado,
+    // 202 quando foi aceito e ainda está na fila (ver comentarios.write-behind.durabilidade)
     @PostMapping
     public ResponseEntity<ComentarioDTO> addComentario(@PathVariable Long artefatoId, @RequestBody ComentarioDTO comentarioDTO) {
+        // Validado antes da fila: no write-behind um erro do INSERT só apareceria depois do 202
+        validarTexto(comentarioDTO.getNome(), "O nome", true);
+        validarTexto(comentarioDTO.getFuncaoEmpresa(), "A função/empresa", false);
+        if (comentarioDTO.getTexto() == null || comentarioDTO.getTexto().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O comentário é obrigatório.");
+        }
+        // Notas fora de 1..5 corromperiam o histograma dos agregados
+        validarNota(comentarioDTO.getAvaliacaoSolucao());
+        validarNota(comentarioDTO.getAvaliacaoVideo());
+        validarNota(comentarioDTO.getAvaliacaoImpacto());
+
+        if (comentarioIngestaoService.isHabilitado()) {
+            if (!comentarioIngestaoService.existeArtefato(artefatoId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Artefato não encontrado");
+            }
+            ComentarioDTO novo = new ComentarioDTO();
+            novo.setArtefatoId(artefatoId);
+            novo.setNome(comentarioDTO.getNome());
+            novo.setFuncaoEmpresa(comentarioDTO.getFuncaoEmpresa());
+            novo.setTexto(comentarioDTO.getTexto());
+            novo.setAvaliacaoSolucao(comentarioDTO.getAvaliacaoSolucao());
+            novo.setAvaliacaoVideo(comentarioDTO.getAvaliacaoVideo());
+            novo.setAvaliacaoImpacto(comentarioDTO.getAvaliacaoImpacto());
+            boolean gravado = comentarioIngestaoService.enfileirar(novo);
+            return ResponseEntity.status(gravado ? HttpStatus.CREATED : HttpStatus.ACCEPTED).body(novo);
+        }
+
         Artefato artefato = artefatoRepository.findById(artefatoId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Artefato não encontrado"));
 
@@ -54,12 +155,30 @@ public class ComentarioController {
         comentario.setAvaliacaoImpacto(comentarioDTO.getAvaliacaoImpacto());
         comentario.setDataCriacao(LocalDateTime.now());
 
-        Comentario savedComentario = comentarioRepository.save(comentario);
+        Comentario savedComentario = avaliacaoService.adicionarComentario(comentario);
+        catalogoVersaoService.registrarAlteracao(artefatoId); // Médias da lista e do detalhe mudaram
         return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(savedComentario));
     }
 
-    // Método auxiliar para converter Entidade para DTO
-    private ComentarioDTO convertToDto(Comentario comentario) {
+    // Campos gravados em colunas VARCHAR(255)
+    private void validarTexto(String valor, String campo, boolean obrigatorio) {
+        if (obrigatorio && (valor == null || valor.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, campo + " é obrigatório.");
+        }
+        if (valor != null && valor.length() > TAMANHO_MAXIMO_VARCHAR) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    campo + " deve ter no máximo " + TAMANHO_MAXIMO_VARCHAR + " caracteres.");
+        }
+    }
+
+    private void validarNota(Integer nota) {
+        if (nota != null && (nota < 1 || nota > 5)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "As avaliações devem ser de 1 a 5 estrelas.");
+        }
+    }
+
+    // Método auxiliar para converter Entidade para DTO (visível no pacote para o benchmark em src/jmh)
+    ComentarioDTO convertToDto(Comentario comentario) {
         ComentarioDTO dto = new ComentarioDTO();
         dto.setId(comentario.getId());
         dto.setArtefatoId(comentario.getArtefato().getId());
@@ -0,0 +1,47 @@
+package com.portifolio.uniguacu.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor de paginação por chave (keyset): guarda a chave de ordenação e o id do último item
+// entregue, codificados em Base64 para que o cliente trate o valor como opaco. Chave nula (artefato
+// sem data de criação) vai como texto vazio e volta como null.
+final class CursorKeyset {
+
+    private static final char SEPARADOR = '|';
+
+    private final String chave;
+    private final long id;
+
+    private CursorKeyset(String chave, long id) {
+        this.chave = chave;
+        this.id = id;
+    }
+
+    static String codificar(Object chave, long id) {
+        String valor = (chave == null ? "" : chave.toString()) + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CursorKeyset decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            String chave = valor.substring(0, separador);
+            return new CursorKeyset(chave.isEmpty() ? null : chave, Long.parseLong(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+        }
+    }
+
+    String getChave() {
+        return chave;
+    }
+
+    long getId() {
+        return id;
+    }
+}
@@ -1,29 +1,71 @@
 package com.portifolio.uniguacu.controller;
 
+import com.portifolio.uniguacu.dto.UploadInicioRequest;
+import com.portifolio.uniguacu.dto.UploadSessaoDTO;
 import com.portifolio.uniguacu.service.FileStorageService;
+import com.portifolio.uniguacu.service.ImagemVarianteService;
+import com.portifolio.uniguacu.service.ImagemVarianteService.Tamanho;
+import com.portifolio.uniguacu.service.UploadParticionadoService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/files")
 // CORS é gerenciado globalmente pelo SecurityConfig
 public class FileController {
 
+    // Os nomes gerados por FileStorageService.store nunca são reaproveitados: o conteúdo de uma URL não muda
+    private static final String CACHE_IMUTAVEL = "public, max-age=31536000, immutable";
+    // Original servido no lugar de uma variante ainda em geração: não pode ficar preso no cache sob a URL da variante
+    private static final String CACHE_PROVISORIO = "public, max-age=60, must-revalidate";
+
+    // Atributos do Tomcat para enviar o arquivo com sendfile (cópia feita pelo kernel, sem passar pela JVM)
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private FileStorageService fileStorageService;
 
-    private final Path rootLocation = Paths.get("upload-dir");
+    @Autowired
+    private ObjectProvider<ImagemVarianteService> imagemVarianteService;
+
+    @Autowired
+    private UploadParticionadoService uploadParticionadoService;
 
     @PostMapping("/upload")
     public ResponseEntity<Map<String, String>> handleFileUpload(@RequestParam("file") MultipartFile file) {
@@ -33,21 +75,210 @@ public class FileController {
         return ResponseEntity.ok().body(response);
     }
 
+    // --- Upload em partes (arquivos acima do limite do multipart) ---
+
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessaoDTO> iniciarUpload(@RequestBody UploadInicioRequest request, Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadParticionadoService.iniciar(authentication.getName(), request));
+    }
+
+    // Partes vão no corpo cru (application/octet-stream), opcionalmente com X-Checksum-SHA256 em hexadecimal
+    @PutMapping("/uploads/{id}/partes/{indice}")
+    public ResponseEntity<Map<String, Object>> enviarParte(@PathVariable String id, @PathVariable int indice,
+                                                           @RequestHeader(name = "X-Checksum-SHA256", required = false) String checksum,
+                                                           HttpServletRequest request, Authentication authentication) throws IOException {
+        String sha256 = uploadParticionadoService.gravarParte(authentication.getName(), id, indice, request.getInputStream(), checksum);
+        Map<String, Object> response = new HashMap<>();
+        response.put("indice", indice);
+        response.put("sha256", sha256);
+        return ResponseEntity.ok(response);
+    }
+
+    // Partes já recebidas, para retomar o envio depois de uma queda
+    @GetMapping("/uploads/{id}")
+    public ResponseEntity<UploadSessaoDTO> consultarUpload(@PathVariable String id, Authentication authentication) {
+        return ResponseEntity.ok(uploadParticionadoService.consultar(authentication.getName(), id));
+    }
+
+    @PostMapping("/uploads/{id}/concluir")
+    public ResponseEntity<UploadSessaoDTO> concluirUpload(@PathVariable String id, Authentication authentication) {
+        return ResponseEntity.ok(uploadParticionadoService.concluir(authentication.getName(), id));
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    public ResponseEntity<Void> cancelarUpload(@PathVariable String id, Authentication authentication) {
+        uploadParticionadoService.cancelar(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Serve o arquivo com cache imutável, ETag/Last-Modified (304 quando o cliente já tem a versão)
+    // e Range (206, inclusive multipart/byteranges para vários intervalos).
+    // Com ?tamanho=thumb|card|full, imagens são servidas na versão reduzida; enquanto ela não existe,
+    // a geração é agendada e vai o original com cache curto.
     @GetMapping("/{filename:.+}")
-    @ResponseBody
-    public ResponseEntity<Resource> serveFile(@PathVariable String filename) {
+    public void serveFile(@PathVariable String filename, @RequestParam(name = "tamanho", required = false) String tamanhoPedido,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path original = fileStorageService.load(filename)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Arquivo não encontrado."));
+        Path arquivo = original;
+        String cacheControl = CACHE_IMUTAVEL;
+        if (tamanhoPedido != null && imagemVarianteService.getObject().isImagem(filename)) {
+            Tamanho pedido = Tamanho.de(tamanhoPedido)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tamanho inválido: " + tamanhoPedido));
+            Optional<Path> variante = imagemVarianteService.getObject().variante(filename, original, pedido);
+            if (variante.isPresent()) {
+                arquivo = variante.get();
+            } else {
+                cacheControl = CACHE_PROVISORIO;
+            }
+        }
+        BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+        long tamanho = atributos.size();
+        long modificadoEm = atributos.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(tamanho) + "-" + Long.toHexString(modificadoEm) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Trata If-None-Match / If-Modified-Since (304) e If-Match / If-Unmodified-Since (412)
+        if (new ServletWebRequest(request, response).checkNotModified(etag, modificadoEm)) {
+            return;
+        }
+
+        MediaType tipo = MediaTypeFactory.getMediaType(arquivo.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + arquivo.getFileName() + "\"");
+
+        List<long[]> intervalos = intervalosPedidos(request, etag, modificadoEm, tamanho);
+        if (intervalos == null) {
+            response.setContentType(tipo.toString());
+            enviar(arquivo, 0, tamanho, request, response);
+        } else if (intervalos.isEmpty()) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+        } else if (intervalos.size() == 1) {
+            long[] intervalo = intervalos.get(0);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType(tipo.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(intervalo, tamanho));
+            enviar(arquivo, intervalo[0], intervalo[1] - intervalo[0] + 1, request, response);
+        } else {
+            enviarVariosIntervalos(arquivo, tipo, intervalos, tamanho, response);
+        }
+    }
+
+    // null = responder o arquivo inteiro (sem Range, Range inválido ou If-Range desatualizado);
+    // lista vazia = nenhum intervalo satisfatível (416). Intervalos sobrepostos ou vizinhos são unidos.
+    private List<long[]> intervalosPedidos(HttpServletRequest request, String etag, long modificadoEm, long tamanho) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (!StringUtils.hasText(range) || !ifRangeAtende(request.getHeader(HttpHeaders.IF_RANGE), etag, modificadoEm)) {
+            return null;
+        }
+        List<HttpRange> pedidos;
         try {
-            Path file = rootLocation.resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() || resource.isReadable()) {
-                return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"" + resource.getFilename() + "\"").body(resource);
+            pedidos = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        List<long[]> intervalos = new ArrayList<>();
+        for (HttpRange pedido : pedidos) {
+            long inicio = pedido.getRangeStart(tamanho);
+            long fim = pedido.getRangeEnd(tamanho);
+            // Intervalo fora do arquivo: ignorado, os demais ainda podem ser atendidos
+            if (inicio < tamanho && inicio <= fim) {
+                intervalos.add(new long[]{inicio, fim});
+            }
+        }
+        intervalos.sort(Comparator.comparingLong(intervalo -> intervalo[0]));
+        List<long[]> unidos = new ArrayList<>();
+        for (long[] intervalo : intervalos) {
+            long[] ultimo = unidos.isEmpty() ? null : unidos.get(unidos.size() - 1);
+            if (ultimo != null && intervalo[0] <= ultimo[1] + 1) {
+                ultimo[1] = Math.max(ultimo[1], intervalo[1]);
             } else {
-                // Em um app de produção, seria melhor retornar um 404 aqui
-                throw new RuntimeException("Could not read the file!");
+                unidos.add(intervalo);
             }
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Error: " + e.getMessage());
         }
+        return unidos;
+    }
+
+    // If-Range só aceita validador forte: o ETag exato ou uma data igual à de modificação
+    private boolean ifRangeAtende(String ifRange, String etag, long modificadoEm) {
+        if (!StringUtils.hasText(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_RANGE, ifRange);
+        try {
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) / 1000 == modificadoEm / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Com Tomcat o corpo vai por sendfile; em outros containers, por FileChannel.transferTo
+    private void enviar(Path arquivo, long inicio, long quantidade, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(quantidade);
+        if ("HEAD".equals(request.getMethod()) || quantidade == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            request.setAttribute(SENDFILE_ARQUIVO, arquivo.toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, inicio + quantidade);
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            transferir(canal, inicio, quantidade, response.getOutputStream());
+        }
+    }
+
+    private void enviarVariosIntervalos(Path arquivo, MediaType tipo, List<long[]> intervalos, long tamanho,
+                                        HttpServletResponse response) throws IOException {
+        String separador = UUID.randomUUID().toString();
+        List<byte[]> cabecalhos = new ArrayList<>(intervalos.size());
+        long total = 0;
+        for (long[] intervalo : intervalos) {
+            byte[] cabecalho = ("\r\n--" + separador + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + tipo + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(intervalo, tamanho) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            cabecalhos.add(cabecalho);
+            total += cabecalho.length + intervalo[1] - intervalo[0] + 1;
+        }
+        byte[] fim = ("\r\n--" + separador + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + separador);
+        response.setContentLengthLong(total + fim.length);
+        ServletOutputStream saida = response.getOutputStream();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            for (int i = 0; i < intervalos.size(); i++) {
+                long[] intervalo = intervalos.get(i);
+                saida.write(cabecalhos.get(i));
+                transferir(canal, intervalo[0], intervalo[1] - intervalo[0] + 1, saida);
+            }
+        }
+        saida.write(fim);
+    }
+
+    private void transferir(FileChannel canal, long inicio, long quantidade, OutputStream saida) throws IOException {
+        WritableByteChannel destino = Channels.newChannel(saida);
+        long enviado = 0;
+        while (enviado < quantidade) {
+            long parte = canal.transferTo(inicio + enviado, quantidade - enviado, destino);
+            if (parte <= 0) {
+                break; // Arquivo encolheu durante o envio
+            }
+            enviado += parte;
+        }
+    }
+
+    private String contentRange(long[] intervalo, long tamanho) {
+        return "bytes " + intervalo[0] + "-" + intervalo[1] + "/" + tamanho;
     }
-}
\ No newline at end of file
+}
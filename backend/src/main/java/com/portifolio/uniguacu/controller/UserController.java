@@ -3,6 +3,8 @@ package com.portifolio.uniguacu.controller;
 import com.portifolio.uniguacu.dto.UsuarioDTO;
 import com.portifolio.uniguacu.model.Usuario;
 import com.portifolio.uniguacu.repository.UsuarioRepository;
+import com.portifolio.uniguacu.security.PrincipalCache;
+import com.portifolio.uniguacu.security.UsuarioPrincipal;
 import com.portifolio.uniguacu.service.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -24,8 +26,15 @@ public class UserController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    // Responde a partir do principal montado pelo filtro JWT (que vem do cache), sem consultar o banco
     @GetMapping("/me")
     public ResponseEntity<UsuarioDTO> getCurrentUser(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal) {
+            return ResponseEntity.ok(convertToDto(principal));
+        }
         Usuario usuario = usuarioRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
         return ResponseEntity.ok(convertToDto(usuario));
@@ -33,8 +42,9 @@ public class UserController {
 
     @PutMapping("/me")
     public ResponseEntity<UsuarioDTO> updateCurrentUser(@RequestBody UsuarioDTO usuarioDetails, Authentication authentication) {
-        Usuario usuario = usuarioRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+        Usuario usuario = findCurrentUser(authentication);
+        // Se o email mudar, a entrada antiga do cache precisa sair (o listener só conhece o email novo)
+        principalCache.invalidar(usuario.getEmail());
 
         usuario.setNomeCompleto(usuarioDetails.getNomeCompleto());
         usuario.setEmail(usuarioDetails.getEmail());
@@ -48,12 +58,19 @@ public class UserController {
 
     @PostMapping("/me/photo")
     public ResponseEntity<?> uploadProfilePhoto(@RequestParam("file") MultipartFile file, Authentication authentication) {
-        Usuario usuario = usuarioRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+        Usuario usuario = findCurrentUser(authentication);
 
+        String fotoAnterior = usuario.getFotoUrl();
         String filename = fileStorageService.store(file);
+        if (filename.equals(fotoAnterior)) {
+            return ResponseEntity.ok().build(); // Mesma foto: a referência já existe
+        }
+        fileStorageService.reter(filename);
         usuario.setFotoUrl(filename);
         usuarioRepository.save(usuario);
+        if (fotoAnterior != null) {
+            fileStorageService.liberar(fotoAnterior); // Devolve a referência da foto antiga
+        }
 
         return ResponseEntity.ok().build();
     }
@@ -78,8 +95,31 @@ public class UserController {
         return ResponseEntity.ok(dtos);
     }
 
+    // Busca pela chave primária quando o principal traz o id (evita o findByEmail)
+    private Usuario findCurrentUser(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal && principal.getId() != null) {
+            return usuarioRepository.findById(principal.getId())
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+        }
+        return usuarioRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+    }
+
+    // Os conversores ficam visíveis no pacote para o benchmark (src/jmh)
+    UsuarioDTO convertToDto(UsuarioPrincipal principal) {
+        UsuarioDTO dto = new UsuarioDTO();
+        dto.setId(principal.getId());
+        dto.setNomeCompleto(principal.getNomeCompleto());
+        dto.setEmail(principal.getUsername());
+        dto.setFotoUrl(principal.getFotoUrl());
+        dto.setCurso(principal.getCurso());
+        dto.setTurno(principal.getTurno());
+        dto.setRole(principal.getRole());
+        return dto;
+    }
+
     // Método auxiliar para não expor dados sensíveis como a senha.
-    private UsuarioDTO convertToDto(Usuario usuario) {
+    UsuarioDTO convertToDto(Usuario usuario) {
         UsuarioDTO dto = new UsuarioDTO();
         dto.setId(usuario.getId());
         dto.setNomeCompleto(usuario.getNomeCompleto());
@@ -0,0 +1,19 @@
+package com.portifolio.uniguacu.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+// Requisição condicional pelas versões do CatalogoVersaoService. Deve ser chamada antes de qualquer
+// consulta: quando devolve true a resposta já é um 304 e o handler só precisa retornar null.
+final class Versionamento {
+
+    private Versionamento() {
+    }
+
+    static boolean naoModificado(ServletWebRequest webRequest, String etag) {
+        // O cliente pode guardar a resposta, mas precisa revalidar a cada uso
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return webRequest.checkNotModified(etag);
+    }
+}
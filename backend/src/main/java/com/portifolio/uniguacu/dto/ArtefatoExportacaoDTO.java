@@ -0,0 +1,21 @@
+package com.portifolio.uniguacu.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.portifolio.uniguacu.model.Artefato;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Uma linha da exportação NDJSON: os campos do artefato (com 'avaliacoes', se pedidas) e seus comentários
+@Data
+@AllArgsConstructor
+public class ArtefatoExportacaoDTO {
+
+    @JsonUnwrapped
+    private Artefato artefato;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ComentarioDTO> comentarios;
+}
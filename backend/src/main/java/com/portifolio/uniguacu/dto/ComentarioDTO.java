@@ -1,9 +1,13 @@
 package com.portifolio.uniguacu.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Usado pela projeção JPQL de ComentarioRepository (a ordem dos campos importa)
 public class ComentarioDTO {
     private Long id;
     private Long artefatoId; // Apenas o ID para referência
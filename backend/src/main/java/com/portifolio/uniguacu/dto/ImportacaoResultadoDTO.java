@@ -0,0 +1,24 @@
+package com.portifolio.uniguacu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Relatório da importação em massa: contadores e os erros por linha (limitados a 'maximo-erros')
+@Data
+public class ImportacaoResultadoDTO {
+    private long linhas;
+    private long importados;
+    private long rejeitados;
+    private List<ErroLinha> erros = new ArrayList<>();
+    private boolean errosTruncados; // true quando houve mais erros do que os listados
+
+    @Data
+    @AllArgsConstructor
+    public static class ErroLinha {
+        private long linha;
+        private String mensagem;
+    }
+}
@@ -0,0 +1,28 @@
+package com.portifolio.uniguacu.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> itens;
+    private String next; // Cursor opaco para a próxima página (null quando não há mais itens)
+
+    // Total de itens da listagem, quando disponível sem custo extra (ex.: comentários, pelo agregado)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    // Contagens por faceta, ex.: {"curso": {"Engenharia": 42}} (só quando pedidas com facetas=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Integer>> facetas;
+
+    public PaginaDTO(List<T> itens, String next) {
+        this.itens = itens;
+        this.next = next;
+    }
+}
@@ -0,0 +1,10 @@
+package com.portifolio.uniguacu.dto;
+
+import lombok.Data;
+
+@Data
+public class UploadInicioRequest {
+    private String nome; // Nome original, usado só para a extensão
+    private Long tamanho; // Tamanho total do arquivo em bytes
+    private Integer tamanhoParte; // Opcional: o servidor usa o padrão quando vazio
+}
@@ -0,0 +1,20 @@
+package com.portifolio.uniguacu.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadSessaoDTO {
+    private String id;
+    private String nome;
+    private long tamanho;
+    private int tamanhoParte;
+    private int totalPartes;
+    private List<Integer> partesRecebidas; // Índices já gravados: o cliente reenvia só o que falta
+    private LocalDateTime expiraEm;
+    private String filename; // Preenchido ao concluir: nome final, igual ao do upload simples
+}
@@ -0,0 +1,24 @@
+package com.portifolio.uniguacu.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Lançada quando um recurso limitado (ex.: o pool de hashing de senhas) está cheio.
+// Vira uma resposta 429 com Retry-After, para o cliente tentar de novo em vez de ficar esperando.
+public class SobrecargaException extends ResponseStatusException {
+
+    private final long retryAfterSegundos;
+
+    public SobrecargaException(String motivo, long retryAfterSegundos) {
+        super(HttpStatus.TOO_MANY_REQUESTS, motivo);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+        return headers;
+    }
+}
@@ -0,0 +1,30 @@
+package com.portifolio.uniguacu.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Um arquivo do armazenamento endereçado por conteúdo: o SHA-256 é a chave, então uploads repetidos
+// (o mesmo logo em vários projetos, a mesma foto) apontam para um único arquivo em disco
+@Entity
+@Table(name = "arquivo_armazenado")
+@Data
+public class ArquivoArmazenado {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(length = 16, nullable = false)
+    private String extensao; // Com o ponto (".png") ou vazia
+
+    private long tamanho;
+
+    private long referencias; // Artefatos e fotos de perfil que citam este conteúdo
+
+    private LocalDateTime dataCriacao = LocalDateTime.now();
+
+    public String getNome() {
+        return sha256 + extensao;
+    }
+}
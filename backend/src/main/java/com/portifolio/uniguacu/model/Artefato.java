@@ -1,5 +1,7 @@
 package com.portifolio.uniguacu.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDate;
@@ -8,8 +10,10 @@ import java.time.LocalDate;
 @Data
 public class Artefato {
 
+    // Sequência com alocação em blocos de 50 para que a importação em massa possa usar INSERT em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artefato_seq")
+    @SequenceGenerator(name = "artefato_seq", sequenceName = "artefato_seq", allocationSize = 50)
     private long id;
 
     @Column(columnDefinition = "TEXT") // Instrução explícita para forçar o tipo TEXTO
@@ -42,4 +46,11 @@ public class Artefato {
     @Enumerated(EnumType.STRING) // Diz ao banco para salvar o nome (ex: "PENDENTE")
     @Column(nullable = false)
     private StatusProjeto status; // Agora usa o tipo Enum
+
+    // --- AVALIAÇÕES ---
+    // Preenchido pelo controller a partir de artefato_avaliacao; não é coluna desta tabela
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private AvaliacaoAgregada avaliacoes;
 }
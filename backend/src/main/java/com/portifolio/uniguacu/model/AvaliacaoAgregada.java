@@ -0,0 +1,64 @@
+package com.portifolio.uniguacu.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Totais das avaliações de um artefato, atualizados a cada comentário novo (sem reler os comentários).
+// As médias ficam em colunas próprias e indexadas para o ranking de projetos.
+@Entity
+@Table(name = "artefato_avaliacao", indexes = {
+        @Index(name = "idx_avaliacao_media_solucao", columnList = "solucao_media"),
+        @Index(name = "idx_avaliacao_media_video", columnList = "video_media"),
+        @Index(name = "idx_avaliacao_media_impacto", columnList = "impacto_media")
+})
+@Data
+public class AvaliacaoAgregada {
+
+    @Id
+    @JsonIgnore
+    private Long artefatoId;
+
+    private long totalComentarios;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "total", column = @Column(name = "solucao_total")),
+            @AttributeOverride(name = "soma", column = @Column(name = "solucao_soma")),
+            @AttributeOverride(name = "media", column = @Column(name = "solucao_media")),
+            @AttributeOverride(name = "histograma", column = @Column(name = "solucao_histograma"))
+    })
+    private DistribuicaoNotas solucao = new DistribuicaoNotas();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "total", column = @Column(name = "video_total")),
+            @AttributeOverride(name = "soma", column = @Column(name = "video_soma")),
+            @AttributeOverride(name = "media", column = @Column(name = "video_media")),
+            @AttributeOverride(name = "histograma", column = @Column(name = "video_histograma"))
+    })
+    private DistribuicaoNotas video = new DistribuicaoNotas();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "total", column = @Column(name = "impacto_total")),
+            @AttributeOverride(name = "soma", column = @Column(name = "impacto_soma")),
+            @AttributeOverride(name = "media", column = @Column(name = "impacto_media")),
+            @AttributeOverride(name = "histograma", column = @Column(name = "impacto_histograma"))
+    })
+    private DistribuicaoNotas impacto = new DistribuicaoNotas();
+
+    public AvaliacaoAgregada() {
+    }
+
+    public AvaliacaoAgregada(Long artefatoId) {
+        this.artefatoId = artefatoId;
+    }
+
+    public void registrar(Integer notaSolucao, Integer notaVideo, Integer notaImpacto) {
+        totalComentarios++;
+        solucao.registrar(notaSolucao);
+        video.registrar(notaVideo);
+        impacto.registrar(notaImpacto);
+    }
+}
@@ -5,11 +5,18 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // Cobre a listagem paginada: comentários de um artefato, mais recentes primeiro
+        @Index(name = "idx_comentario_artefato_data", columnList = "artefato_id, data_criacao DESC, id DESC")
+})
 @Data
 public class Comentario {
 
+    // Sequência com alocação em blocos de 50: permite INSERT em lote (IDENTITY impede o batching do JDBC)
+    // e gerar o id antes de gravar, como faz a ingestão write-behind de ComentarioIngestaoService
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comentario_seq")
+    @SequenceGenerator(name = "comentario_seq", sequenceName = "comentario_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY) // Muitos comentários para um Artefato
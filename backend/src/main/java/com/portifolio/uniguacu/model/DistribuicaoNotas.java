@@ -0,0 +1,25 @@
+package com.portifolio.uniguacu.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+
+// Agregado de uma dimensão de avaliação (1 a 5 estrelas): quantidade, soma, média e histograma
+@Embeddable
+@Data
+public class DistribuicaoNotas {
+
+    private long total;
+    private long soma;
+    private double media;
+    private long[] histograma = new long[5]; // histograma[0] = notas 1, ..., histograma[4] = notas 5
+
+    public void registrar(Integer nota) {
+        if (nota == null) {
+            return;
+        }
+        total++;
+        soma += nota;
+        media = (double) soma / total;
+        histograma[nota - 1]++;
+    }
+}
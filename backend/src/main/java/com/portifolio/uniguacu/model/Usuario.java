@@ -1,11 +1,13 @@
 package com.portifolio.uniguacu.model;
 
+import com.portifolio.uniguacu.security.UsuarioCacheListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "usuarios")
+@EntityListeners(UsuarioCacheListener.class) // Invalida o cache de principals ao alterar/remover
 @Data
 public class Usuario {
 
@@ -0,0 +1,24 @@
+package com.portifolio.uniguacu.repository;
+
+import com.portifolio.uniguacu.model.ArquivoArmazenado;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArquivoArmazenadoRepository extends JpaRepository<ArquivoArmazenado, String> {
+
+    // Trava a linha para que contagem de referências e remoção do arquivo não se atropelem
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ArquivoArmazenado a WHERE a.sha256 = :sha256")
+    Optional<ArquivoArmazenado> findParaAtualizar(@Param("sha256") String sha256);
+
+    // Candidatos, sem trava: quem apaga relê cada linha com findParaAtualizar
+    @Query("SELECT a.sha256 FROM ArquivoArmazenado a WHERE a.referencias = 0 AND a.dataCriacao < :limite")
+    List<String> findNaoCitadosAntesDe(@Param("limite") LocalDateTime limite);
+}
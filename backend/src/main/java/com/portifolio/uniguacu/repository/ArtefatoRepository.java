@@ -2,12 +2,16 @@ package com.portifolio.uniguacu.repository;
 
 import com.portifolio.uniguacu.model.Artefato;
 import com.portifolio.uniguacu.model.StatusProjeto; // Importa o Enum
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ArtefatoRepository extends JpaRepository<Artefato, Long> {
 
@@ -33,7 +37,49 @@ public interface ArtefatoRepository extends JpaRepository<Artefato, Long> {
             @Param("dataFinal") LocalDate dataFinal
     );
 
+    // Mesma busca, mas paginada por chave (data_criacao, id): a página começa logo após o cursor,
+    // então o custo não depende de quantas páginas já foram percorridas (ao contrário de OFFSET).
+    // Artefatos sem data vêm primeiro (NULLS FIRST, o padrão do DESC no PostgreSQL e a ordem dos índices),
+    // como no FacetaIndexService; cursor com data nula continua pelos sem data e depois por todos os datados.
+    @Query(value = "SELECT * FROM artefato a WHERE " +
+            "a.status = :status AND " +
+            "(:busca IS NULL OR LOWER(a.titulo::text) LIKE LOWER(CONCAT('%', :busca, '%')) OR LOWER(a.autor::text) LIKE LOWER(CONCAT('%', :busca, '%'))) AND " +
+            "(:curso IS NULL OR a.curso = :curso) AND " +
+            "(:campus IS NULL OR a.campus = :campus) AND " +
+            "(:categoria IS NULL OR a.categoria = :categoria) AND " +
+            "(:semestre IS NULL OR a.semestre = :semestre) AND " +
+            "(:dataInicial IS NULL OR a.data_criacao >= :dataInicial) AND " +
+            "(:dataFinal IS NULL OR a.data_criacao <= :dataFinal) AND " +
+            "(:cursorId IS NULL OR " +
+            "(:cursorData IS NULL AND (a.data_criacao IS NOT NULL OR a.id < :cursorId)) OR " +
+            "(a.data_criacao, a.id) < (:cursorData, :cursorId)) " +
+            "ORDER BY a.data_criacao DESC NULLS FIRST, a.id DESC " +
+            "LIMIT :limite", nativeQuery = true)
+    List<Artefato> searchByStatusAposCursor(
+            @Param("status") String status,
+            @Param("busca") String busca,
+            @Param("curso") String curso,
+            @Param("campus") String campus,
+            @Param("categoria") String categoria,
+            @Param("semestre") Integer semestre,
+            @Param("dataInicial") LocalDate dataInicial,
+            @Param("dataFinal") LocalDate dataFinal,
+            @Param("cursorData") LocalDate cursorData,
+            @Param("cursorId") Long cursorId,
+            @Param("limite") int limite
+    );
+
     // Nova query para buscar projetos por status (para admin)
     // Agora aceita o Enum
     List<Artefato> findByStatus(StatusProjeto status);
-}
\ No newline at end of file
+
+    // Exportação: cursor só de ida (fetch size de 500) sobre os artefatos e seus agregados de avaliação,
+    // em ordem de id para casar com ComentarioRepository.streamParaExportacao. Precisa de transação aberta.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a, ag FROM Artefato a LEFT JOIN AvaliacaoAgregada ag ON ag.artefatoId = a.id " +
+            "WHERE a.status = :status ORDER BY a.id")
+    Stream<Object[]> streamParaExportacao(@Param("status") StatusProjeto status);
+}
@@ -0,0 +1,42 @@
+package com.portifolio.uniguacu.repository;
+
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AvaliacaoAgregadaRepository extends JpaRepository<AvaliacaoAgregada, Long> {
+
+    // Trava a linha do agregado para que comentários simultâneos no mesmo projeto não percam contagens
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ag FROM AvaliacaoAgregada ag WHERE ag.artefatoId = :artefatoId")
+    Optional<AvaliacaoAgregada> findParaAtualizar(@Param("artefatoId") Long artefatoId);
+
+    // Rankings por dimensão: leem apenas a tabela de agregados (ordenada pelo índice da média)
+    @Query("SELECT ag FROM AvaliacaoAgregada ag, Artefato a WHERE a.id = ag.artefatoId AND a.status = :status " +
+            "AND ag.solucao.total >= :minimo ORDER BY ag.solucao.media DESC, ag.solucao.total DESC")
+    List<AvaliacaoAgregada> rankingSolucao(@Param("status") StatusProjeto status, @Param("minimo") long minimo, Pageable pageable);
+
+    @Query("SELECT ag FROM AvaliacaoAgregada ag, Artefato a WHERE a.id = ag.artefatoId AND a.status = :status " +
+            "AND ag.video.total >= :minimo ORDER BY ag.video.media DESC, ag.video.total DESC")
+    List<AvaliacaoAgregada> rankingVideo(@Param("status") StatusProjeto status, @Param("minimo") long minimo, Pageable pageable);
+
+    @Query("SELECT ag FROM AvaliacaoAgregada ag, Artefato a WHERE a.id = ag.artefatoId AND a.status = :status " +
+            "AND ag.impacto.total >= :minimo ORDER BY ag.impacto.media DESC, ag.impacto.total DESC")
+    List<AvaliacaoAgregada> rankingImpacto(@Param("status") StatusProjeto status, @Param("minimo") long minimo, Pageable pageable);
+
+    // Usados para montar os agregados de projetos que ainda não têm um (ex.: dados anteriores a esta tabela)
+    @Query("SELECT a.id FROM Artefato a WHERE a.id NOT IN (SELECT ag.artefatoId FROM AvaliacaoAgregada ag)")
+    List<Long> findArtefatosSemAgregado();
+
+    @Query("SELECT c.artefato.id, c.avaliacaoSolucao, c.avaliacaoVideo, c.avaliacaoImpacto FROM Comentario c " +
+            "WHERE c.artefato.id NOT IN (SELECT ag.artefatoId FROM AvaliacaoAgregada ag)")
+    List<Object[]> findNotasSemAgregado();
+}
@@ -1,11 +1,46 @@
 package com.portifolio.uniguacu.repository;
 
+import com.portifolio.uniguacu.dto.ComentarioDTO;
 import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
 
-    // Busca todos os comentários associados a um Artefato específico, ordenados por data
-    List<Comentario> findByArtefatoIdOrderByDataCriacaoDesc(Long artefatoId);
+    String PROJECAO_DTO = "SELECT new com.portifolio.uniguacu.dto.ComentarioDTO(c.id, c.artefato.id, c.nome, " +
+            "c.funcaoEmpresa, c.texto, c.avaliacaoSolucao, c.avaliacaoVideo, c.avaliacaoImpacto, c.dataCriacao) " +
+            "FROM Comentario c WHERE c.artefato.id = :artefatoId ";
+
+    // Listagem paginada por (data_criacao, id): lê os DTOs direto da consulta, sem montar entidades,
+    // percorrendo o índice idx_comentario_artefato_data
+    @Query(PROJECAO_DTO + "ORDER BY c.dataCriacao DESC, c.id DESC")
+    List<ComentarioDTO> findPrimeiraPagina(@Param("artefatoId") Long artefatoId, Limit limite);
+
+    @Query(PROJECAO_DTO + "AND (c.dataCriacao < :cursorData OR (c.dataCriacao = :cursorData AND c.id < :cursorId)) " +
+            "ORDER BY c.dataCriacao DESC, c.id DESC")
+    List<ComentarioDTO> findPaginaAposCursor(@Param("artefatoId") Long artefatoId,
+                                             @Param("cursorData") LocalDateTime cursorData,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limite);
+
+    // Busca todos os comentários associados a um Artefato específico, ordenados por data (modo sem paginação)
+    @Query(PROJECAO_DTO + "ORDER BY c.dataCriacao DESC, c.id DESC")
+    List<ComentarioDTO> findTodosDto(@Param("artefatoId") Long artefatoId);
+
+    // Exportação: comentários de todos os artefatos com o status, agrupados por artefato (ordem de id)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.portifolio.uniguacu.dto.ComentarioDTO(c.id, c.artefato.id, c.nome, " +
+            "c.funcaoEmpresa, c.texto, c.avaliacaoSolucao, c.avaliacaoVideo, c.avaliacaoImpacto, c.dataCriacao) " +
+            "FROM Comentario c WHERE c.artefato.status = :status ORDER BY c.artefato.id, c.dataCriacao DESC, c.id DESC")
+    Stream<ComentarioDTO> streamParaExportacao(@Param("status") StatusProjeto status);
 }
@@ -0,0 +1,125 @@
+package com.portifolio.uniguacu.security;
+
+import com.portifolio.uniguacu.exception.SobrecargaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BCrypt executado num pool próprio, do tamanho dos núcleos e com fila limitada.
+// Num pico de logins o hashing não ocupa todas as threads do Tomcat: quando a fila enche,
+// a requisição recebe 429 + Retry-After na hora e o resto do site continua respondendo.
+public class BCryptLimitadoPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int forca;
+    private final ThreadPoolExecutor executor;
+    private final Duration esperaMaxima;
+    private final long retryAfterSegundos;
+
+    private final Timer tempoEncode;
+    private final Timer tempoMatches;
+    private final Counter rejeitadas;
+
+    public BCryptLimitadoPasswordEncoder(int forca, int threads, int fila, Duration esperaMaxima,
+                                         long retryAfterSegundos, MeterRegistry meterRegistry) {
+        this.bcrypt = new BCryptPasswordEncoder(forca);
+        this.forca = forca;
+        this.esperaMaxima = esperaMaxima;
+        this.retryAfterSegundos = retryAfterSegundos;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                r -> {
+                    Thread thread = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("senhas.fila", executor, e -> e.getQueue().size())
+                .description("Operações de BCrypt aguardando uma thread livre")
+                .register(meterRegistry);
+        Gauge.builder("senhas.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de BCrypt em execução")
+                .register(meterRegistry);
+        this.tempoEncode = Timer.builder("senhas.hash").tag("operacao", "encode")
+                .description("Tempo de BCrypt, sem contar a espera na fila")
+                .register(meterRegistry);
+        this.tempoMatches = Timer.builder("senhas.hash").tag("operacao", "matches")
+                .description("Tempo de BCrypt, sem contar a espera na fila")
+                .register(meterRegistry);
+        this.rejeitadas = Counter.builder("senhas.rejeitadas")
+                .description("Operações recusadas com 429 por falta de capacidade")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> tempoEncode.record(() -> bcrypt.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> tempoMatches.record(() -> bcrypt.matches(rawPassword, encodedPassword)));
+    }
+
+    // Refaz o hash no login sempre que o custo salvo difere do configurado (para mais ou para menos).
+    // O DaoAuthenticationProvider chama CustomUserDetailsService.updatePassword com o hash novo.
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != forca;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new SobrecargaException("Muitas requisições de autenticação, tente novamente em instantes.", retryAfterSegundos);
+        }
+        try {
+            return futuro.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rejeitadas.increment();
+            throw new SobrecargaException("Muitas requisições de autenticação, tente novamente em instantes.", retryAfterSegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
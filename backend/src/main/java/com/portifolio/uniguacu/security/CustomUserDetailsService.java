@@ -3,19 +3,14 @@ package com.portifolio.uniguacu.security;
 import com.portifolio.uniguacu.model.Usuario;
 import com.portifolio.uniguacu.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority; // Import
-import org.springframework.security.core.authority.SimpleGrantedAuthority; // Import
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections; // Import
-import java.util.List; // Import
-
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
@@ -25,8 +20,28 @@ public class CustomUserDetailsService implements UserDetailsService {
         Usuario user = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + email));
 
-        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(user.getRole()));
+        return new UsuarioPrincipal(user);
+    }
+
+    // Chamado no login quando o hash salvo usa um custo de BCrypt diferente do configurado
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + user.getUsername()));
+        usuario.setPassword(newPassword);
+        return new UsuarioPrincipal(usuarioRepository.save(usuario));
+    }
 
-        return new User(user.getEmail(), user.getPassword(), authorities);
+    // Usado pelo filtro JWT quando o usuário não está no cache: busca pela chave primária (claim 'uid')
+    // e confere o email, para que um token emitido antes de uma troca de email deixe de valer
+    public UsuarioPrincipal carregarPrincipal(Long id, String email) {
+        if (id == null) {
+            return UsuarioPrincipal.semSenha(usuarioRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + email)));
+        }
+        return usuarioRepository.findById(id)
+                .filter(user -> user.getEmail().equals(email))
+                .map(UsuarioPrincipal::semSenha)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + email));
     }
 }
\ No newline at end of file
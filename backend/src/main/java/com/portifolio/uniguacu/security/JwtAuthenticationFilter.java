@@ -1,9 +1,14 @@
 package com.portifolio.uniguacu.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,34 +23,58 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Mensagens parametrizadas: com DEBUG desligado (produção) nada é montado por requisição.
+    // O token nunca vai para o log
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        // Tempo só da autenticação (sem o resto da cadeia), por resultado: autenticado, anonimo, invalido ou erro
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "anonimo";
         try {
             String jwt = getJwtFromRequest(request);
-            logger.debug("JWT Token: " + jwt);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
-                logger.debug("Username from JWT: " + username);
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                logger.debug("User authorities: " + userDetails.getAuthorities());
+            // Uma única verificação (assinatura + expiração) por requisição, com cache de tokens já verificados
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.verificar(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                Long userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class);
+                // O banco só é consultado quando o usuário não está no cache (ou a entrada expirou/foi invalidada)
+                UserDetails userDetails = principalCache.obter(username,
+                        email -> customUserDetailsService.carregarPrincipal(userId, email));
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.debug("Authentication set in security context");
+                resultado = "autenticado";
+                log.debug("JWT válido: {} autenticado com {}", username, userDetails.getAuthorities());
             } else {
-                logger.debug("JWT token is null or invalid");
+                if (StringUtils.hasText(jwt)) {
+                    resultado = "invalido";
+                }
+                log.debug("Requisição sem JWT ou com JWT inválido ({})", resultado);
             }
         } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
+            resultado = "erro";
+            log.error("Não foi possível autenticar a requisição pelo JWT", ex);
         }
+        amostra.stop(Timer.builder("seguranca.jwt.filtro")
+                .description("Verificação do JWT e carga do usuário no JwtAuthenticationFilter")
+                .tag("resultado", resultado)
+                .register(meterRegistry));
 
         filterChain.doFilter(request, response);
     }
@@ -1,17 +1,37 @@
 package com.portifolio.uniguacu.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
 
     // 1. Gere uma chave secreta forte. NUNCA exponha esta chave.
     // O ideal é que ela venha de uma variável de ambiente.
@@ -19,36 +39,115 @@ public class JwtTokenProvider {
 
     private final long jwtExpirationInMs = 604800000L; // 7 dias
 
+    // O parser é imutável e thread-safe: montado uma vez em vez de a cada requisição
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(jwtSecret).build();
+
+    private final Cache<String, Claims> verificados;
+
+    public static final String CLAIM_USER_ID = "uid";
+
+    public JwtTokenProvider(@Value("${seguranca.jwt.cache.tamanho-maximo:10000}") long tamanhoMaximoCache,
+                            @Value("${seguranca.jwt.cache.expiracao-maxima:PT10M}") Duration expiracaoMaximaCache) {
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(new ExpiracaoDoToken(expiracaoMaximaCache))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verificados, "seguranca.jwt.verificados");
+    }
+
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(jwtSecret)
-                .compact();
+                .setExpiration(expiryDate);
+        // O id vai assinado no token, assim o filtro busca o usuário pela chave primária e não pelo email.
+        // A role não vai: as permissões vêm do PrincipalCache, que a troca de role invalida na hora
+        // (um token de 7 dias carregaria a role antiga até expirar).
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId());
+        }
+        return builder.signWith(jwtSecret).compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtSecret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifica assinatura e expiração uma única vez e devolve as claims (ou null se o token for inválido).
+    // Tokens já verificados ficam num cache pequeno, indexado pelo SHA-256 do token, até o seu 'exp'.
+    public Claims verificar(String token) {
+        String digest = digest(token);
+        Claims claims = verificados.getIfPresent(digest);
+        if (claims != null) {
+            return claims;
+        }
+        try {
+            claims = parse(token);
+        } catch (Exception ex) {
+            // Assinatura inválida, token expirado, etc.: debug, para um cliente com token velho não encher o log
+            log.debug("Token JWT recusado: {}", ex.getMessage());
+            return null;
+        }
+        if (claims.getExpiration() != null) {
+            verificados.put(digest, claims);
+        }
+        return claims;
+    }
 
+    public String getUsernameFromJWT(String token) {
+        Claims claims = verificar(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
         return claims.getSubject();
     }
 
     public boolean validateToken(String authToken) {
+        return verificar(authToken) != null;
+    }
+
+    // Verificação sem passar pelo cache (usada também pelos benchmarks)
+    Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecret).build().parseClaimsJws(authToken);
-            return true;
-        } catch (Exception ex) {
-            // Log de erros (assinatura inválida, token expirado, etc.)
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Cada entrada vive até o 'exp' do token (limitado a expiracaoMaxima), nunca além
+    private static class ExpiracaoDoToken implements Expiry<String, Claims> {
+
+        private final long expiracaoMaximaNanos;
+
+        ExpiracaoDoToken(Duration expiracaoMaxima) {
+            this.expiracaoMaximaNanos = expiracaoMaxima.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long restanteMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(restanteMs), expiracaoMaximaNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.portifolio.uniguacu.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Cache limitado (tamanho e tempo) dos usuários autenticados, indexado pelo email (subject do JWT).
+// Mudanças de role e remoções de usuário invalidam a entrada via UsuarioCacheListener.
+// Acertos e faltas em cache.gets{cache="seguranca.principais"}.
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final Cache<String, UsuarioPrincipal> cache;
+
+    public PrincipalCache(@Value("${seguranca.principal-cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${seguranca.principal-cache.expiracao:PT5M}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "seguranca.principais");
+    }
+
+    public UsuarioPrincipal obter(String email, Function<String, UsuarioPrincipal> carregar) {
+        return cache.get(email, carregar);
+    }
+
+    public void colocar(UsuarioPrincipal principal) {
+        cache.put(principal.getUsername(), principal);
+    }
+
+    public void invalidar(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.portifolio.uniguacu.security;
+
+import com.portifolio.uniguacu.model.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Listener JPA de Usuario: qualquer alteração (ex.: troca de role) ou remoção tira o usuário do
+// cache de principals, então a próxima requisição dele recarrega os dados do banco.
+// O Hibernate cria esta classe pelo contêiner do Spring, por isso a injeção funciona.
+public class UsuarioCacheListener {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void invalidar(Usuario usuario) {
+        principalCache.invalidar(usuario.getEmail());
+    }
+}
@@ -0,0 +1,40 @@
+package com.portifolio.uniguacu.security;
+
+import com.portifolio.uniguacu.model.Usuario;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+// Usuário autenticado com os dados de perfil que as rotas precisam (id, role, nome...),
+// para que o filtro JWT e o /api/users/me não precisem voltar ao banco a cada requisição
+@Getter
+public class UsuarioPrincipal extends User {
+
+    private final Long id;
+    private final String nomeCompleto;
+    private final String fotoUrl;
+    private final String curso;
+    private final String turno;
+    private final String role;
+
+    public UsuarioPrincipal(Usuario usuario) {
+        this(usuario, usuario.getPassword());
+    }
+
+    private UsuarioPrincipal(Usuario usuario, String senha) {
+        super(usuario.getEmail(), senha, Collections.singletonList(new SimpleGrantedAuthority(usuario.getRole())));
+        this.id = usuario.getId();
+        this.nomeCompleto = usuario.getNomeCompleto();
+        this.fotoUrl = usuario.getFotoUrl();
+        this.curso = usuario.getCurso();
+        this.turno = usuario.getTurno();
+        this.role = usuario.getRole();
+    }
+
+    // Versão sem o hash da senha, usada no cache de principals
+    public static UsuarioPrincipal semSenha(Usuario usuario) {
+        return new UsuarioPrincipal(usuario, "");
+    }
+}
@@ -0,0 +1,158 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Projeções das listagens de artefatos: em vez de entidades completas (com a descrição TEXT e o JSON
+// de imagens/documentos), a consulta seleciona só as colunas pedidas e devolve cada linha como mapa.
+// Sem 'fields' as listas usam o RESUMO, que é o que o card da grade mostra.
+@Service
+public class ArtefatoProjecaoService {
+
+    // Campos aceitos em 'fields', na ordem em que aparecem no JSON. 'avaliacoes' vem de artefato_avaliacao.
+    public static final List<String> CAMPOS = List.of("id", "titulo", "descricao", "autor", "curso", "campus",
+            "categoria", "semestre", "dataCriacao", "urlImagemPrincipal", "listaImagens", "listaDocumentos",
+            "videoYoutubeUrl", "status", "avaliacoes");
+
+    public static final List<String> RESUMO = List.of("id", "titulo", "autor", "curso", "campus", "categoria",
+            "semestre", "dataCriacao", "urlImagemPrincipal", "avaliacoes");
+
+    private static final String AVALIACOES = "avaliacoes";
+    // Mantém o IN abaixo do limite de parâmetros do driver mesmo na lista completa sem paginação
+    private static final int IDS_POR_CONSULTA = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    // "titulo,autor" -> campos validados na ordem canônica (o id sempre vai junto); null usa o padrão
+    public List<String> campos(String fields, List<String> padrao) {
+        if (!StringUtils.hasText(fields)) {
+            return padrao;
+        }
+        Set<String> pedidos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            String nome = campo.trim();
+            if (nome.isEmpty()) {
+                continue;
+            }
+            if (!CAMPOS.contains(nome)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Campo inválido: " + nome + ". Use: " + String.join(", ", CAMPOS));
+            }
+            pedidos.add(nome);
+        }
+        List<String> campos = new ArrayList<>();
+        for (String campo : CAMPOS) {
+            if (campo.equals("id") || pedidos.contains(campo)) {
+                campos.add(campo);
+            }
+        }
+        return campos;
+    }
+
+    // Projeta os ids na ordem recebida. Com 'status', descarta quem mudou de status desde a
+    // última atualização do índice que produziu os ids.
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> porIds(List<Long> ids, List<String> campos, StatusProjeto status) {
+        List<String> colunas = colunas(campos);
+        String jpql = "SELECT a.status, " + selecao(colunas) + " FROM Artefato a WHERE a.id IN :ids";
+        Map<Long, Map<String, Object>> porId = new HashMap<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_CONSULTA) {
+            List<Long> lote = ids.subList(inicio, Math.min(ids.size(), inicio + IDS_POR_CONSULTA));
+            for (Object[] linha : entityManager.createQuery(jpql, Object[].class).setParameter("ids", lote).getResultList()) {
+                if (status == null || status == linha[0]) {
+                    Map<String, Object> item = linha(colunas, linha);
+                    porId.put((Long) item.get("id"), item);
+                }
+            }
+        }
+        List<Map<String, Object>> resultado = new ArrayList<>(porId.size());
+        for (Long id : ids) {
+            Map<String, Object> item = porId.get(id);
+            if (item != null) {
+                resultado.add(item);
+            }
+        }
+        return comAvaliacoes(resultado, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> porStatus(StatusProjeto status, List<String> campos) {
+        List<String> colunas = colunas(campos);
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        for (Object[] linha : entityManager.createQuery("SELECT a.status, " + selecao(colunas)
+                        + " FROM Artefato a WHERE a.status = :status ORDER BY a.id", Object[].class)
+                .setParameter("status", status).getResultList()) {
+            resultado.add(linha(colunas, linha));
+        }
+        return comAvaliacoes(resultado, campos);
+    }
+
+    // Para entidades já carregadas (ex.: busca por LIKE enquanto os índices são montados)
+    public List<Map<String, Object>> projetar(List<Artefato> artefatos, List<String> campos) {
+        List<Map<String, Object>> resultado = new ArrayList<>(artefatos.size());
+        for (Artefato artefato : artefatos) {
+            BeanWrapper propriedades = PropertyAccessorFactory.forBeanPropertyAccess(artefato);
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String campo : colunas(campos)) {
+                item.put(campo, propriedades.getPropertyValue(campo));
+            }
+            resultado.add(item);
+        }
+        return comAvaliacoes(resultado, campos);
+    }
+
+    private List<Map<String, Object>> comAvaliacoes(List<Map<String, Object>> itens, List<String> campos) {
+        if (!campos.contains(AVALIACOES) || itens.isEmpty()) {
+            return itens;
+        }
+        List<Long> ids = new ArrayList<>(itens.size());
+        for (Map<String, Object> item : itens) {
+            ids.add((Long) item.get("id"));
+        }
+        Map<Long, AvaliacaoAgregada> avaliacoes = avaliacaoService.buscarTodos(ids);
+        for (Map<String, Object> item : itens) {
+            item.put(AVALIACOES, avaliacoes.get((Long) item.get("id")));
+        }
+        return itens;
+    }
+
+    private List<String> colunas(List<String> campos) {
+        return campos.stream().filter(campo -> !campo.equals(AVALIACOES)).toList();
+    }
+
+    private String selecao(List<String> colunas) {
+        return String.join(", ", colunas.stream().map(coluna -> "a." + coluna).toList());
+    }
+
+    // A linha vem com o status na posição 0, seguido das colunas pedidas
+    private Map<String, Object> linha(List<String> colunas, Object[] linha) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        for (int i = 0; i < colunas.size(); i++) {
+            item.put(colunas.get(i), linha[i + 1]);
+        }
+        return item;
+    }
+}
@@ -0,0 +1,107 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+// Gravações de artefatos. As que leem o artefato e gravam em cima do que leram fazem as duas coisas na
+// mesma transação, no primário. Os arquivos que passam a ser citados ganham a referência nessa transação;
+// índices, versão do catálogo e liberação dos que deixaram de ser citados ficam com quem chama, depois do
+// commit (ver CatalogoVersaoService e FileStorageService).
+@Service
+public class ArtefatoService {
+
+    @Autowired
+    private ArtefatoRepository artefatoRepository;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    // O artefato gravado e os arquivos que ele deixou de citar
+    public record Alteracao(Artefato artefato, Set<String> arquivosRemovidos) {
+    }
+
+    // Novo artefato, com o agregado de avaliações vazio
+    @Transactional
+    public Artefato criar(Artefato artefato) {
+        Artefato salvo = artefatoRepository.save(artefato);
+        avaliacaoService.criar(salvo.getId());
+        fileStorageService.reterTodos(arquivosReferenciados(salvo));
+        return salvo;
+    }
+
+    @Transactional
+    public Optional<Alteracao> atualizar(Long id, Artefato artefatoDetalhes) {
+        return artefatoRepository.findById(id)
+                .map(artefatoExistente -> {
+                    Set<String> arquivosAntes = arquivosReferenciados(artefatoExistente);
+
+                    // Atualiza os campos básicos
+                    artefatoExistente.setTitulo(artefatoDetalhes.getTitulo());
+                    artefatoExistente.setDescricao(artefatoDetalhes.getDescricao());
+                    artefatoExistente.setAutor(artefatoDetalhes.getAutor());
+
+                    // Atualiza os novos campos de mídia
+                    artefatoExistente.setUrlImagemPrincipal(artefatoDetalhes.getUrlImagemPrincipal());
+                    artefatoExistente.setListaImagens(artefatoDetalhes.getListaImagens());
+                    artefatoExistente.setListaDocumentos(artefatoDetalhes.getListaDocumentos());
+                    artefatoExistente.setVideoYoutubeUrl(artefatoDetalhes.getVideoYoutubeUrl());
+
+                    // Atualiza os campos de filtro
+                    artefatoExistente.setCurso(artefatoDetalhes.getCurso());
+                    artefatoExistente.setCampus(artefatoDetalhes.getCampus());
+                    artefatoExistente.setCategoria(artefatoDetalhes.getCategoria());
+                    artefatoExistente.setSemestre(artefatoDetalhes.getSemestre());
+
+                    // IMPORTANTE: O status NÃO é atualizado aqui
+
+                    Artefato atualizado = artefatoRepository.save(artefatoExistente);
+                    Set<String> arquivosDepois = arquivosReferenciados(atualizado);
+                    Set<String> novos = new HashSet<>(arquivosDepois);
+                    novos.removeAll(arquivosAntes);
+                    fileStorageService.reterTodos(novos);
+                    arquivosAntes.removeAll(arquivosDepois);
+                    return new Alteracao(atualizado, arquivosAntes);
+                });
+    }
+
+    @Transactional
+    public Optional<Artefato> aprovar(Long id) {
+        return artefatoRepository.findById(id)
+                .map(artefato -> {
+                    if (artefato.getStatus() != StatusProjeto.PENDENTE) { // Compara com Enum
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Projeto não está pendente para aprovação.");
+                    }
+                    artefato.setStatus(StatusProjeto.APROVADO); // Define com Enum
+                    return artefatoRepository.save(artefato);
+                });
+    }
+
+    // Apaga o artefato e o agregado das avaliações; devolve os arquivos que ele citava
+    @Transactional
+    public Optional<Set<String>> deletar(Long id) {
+        return artefatoRepository.findById(id)
+                .map(artefato -> {
+                    artefatoRepository.delete(artefato);
+                    avaliacaoService.remover(id);
+                    return arquivosReferenciados(artefato);
+                });
+    }
+
+    private Set<String> arquivosReferenciados(Artefato artefato) {
+        return fileStorageService.nomesReferenciados(artefato.getUrlImagemPrincipal(),
+                artefato.getListaImagens(), artefato.getListaDocumentos());
+    }
+}
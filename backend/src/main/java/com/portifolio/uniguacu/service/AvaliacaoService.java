@@ -0,0 +1,148 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.AvaliacaoAgregadaRepository;
+import com.portifolio.uniguacu.repository.ComentarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Mantém os agregados de avaliação (contagem, soma, média e histograma por dimensão) de cada artefato.
+// Cada comentário novo atualiza a linha do seu artefato em O(1), na mesma transação do INSERT.
+@Service
+public class AvaliacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvaliacaoService.class);
+
+    public static final List<String> DIMENSOES = List.of("solucao", "video", "impacto");
+
+    @Autowired
+    private AvaliacaoAgregadaRepository avaliacaoAgregadaRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    // Cria os agregados que faltam (projetos anteriores a esta tabela) a partir dos comentários já gravados
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruirFaltantes() {
+        Map<Long, AvaliacaoAgregada> novos = new HashMap<>();
+        for (Long artefatoId : avaliacaoAgregadaRepository.findArtefatosSemAgregado()) {
+            novos.put(artefatoId, new AvaliacaoAgregada(artefatoId));
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+        for (Object[] notas : avaliacaoAgregadaRepository.findNotasSemAgregado()) {
+            AvaliacaoAgregada agregado = novos.get((Long) notas[0]);
+            if (agregado != null) {
+                agregado.registrar((Integer) notas[1], (Integer) notas[2], (Integer) notas[3]);
+            }
+        }
+        avaliacaoAgregadaRepository.saveAll(novos.values());
+        log.info("Agregados de avaliação criados para {} artefatos", novos.size());
+    }
+
+    @Transactional
+    public void criar(Long artefatoId) {
+        if (!avaliacaoAgregadaRepository.existsById(artefatoId)) {
+            avaliacaoAgregadaRepository.save(new AvaliacaoAgregada(artefatoId));
+        }
+    }
+
+    @Transactional
+    public void remover(Long artefatoId) {
+        avaliacaoAgregadaRepository.deleteById(artefatoId);
+    }
+
+    // Grava o comentário e soma as notas dele ao agregado do artefato, tudo ou nada
+    @Transactional
+    public Comentario adicionarComentario(Comentario comentario) {
+        Comentario salvo = comentarioRepository.save(comentario);
+        Long artefatoId = comentario.getArtefato().getId();
+        AvaliacaoAgregada agregado = avaliacaoAgregadaRepository.findParaAtualizar(artefatoId)
+                .orElseGet(() -> new AvaliacaoAgregada(artefatoId));
+        agregado.registrar(comentario.getAvaliacaoSolucao(), comentario.getAvaliacaoVideo(), comentario.getAvaliacaoImpacto());
+        avaliacaoAgregadaRepository.save(agregado);
+        return salvo;
+    }
+
+    // Soma as notas de um lote de comentários já inseridos (write-behind) aos agregados, na transação do lote.
+    // As linhas são travadas em ordem de id para que dois lotes concorrentes não entrem em deadlock.
+    @Transactional
+    public void registrarLote(List<ComentarioDTO> comentarios) {
+        Map<Long, List<ComentarioDTO>> porArtefato = new TreeMap<>();
+        for (ComentarioDTO comentario : comentarios) {
+            porArtefato.computeIfAbsent(comentario.getArtefatoId(), id -> new ArrayList<>()).add(comentario);
+        }
+        for (Map.Entry<Long, List<ComentarioDTO>> entrada : porArtefato.entrySet()) {
+            Long artefatoId = entrada.getKey();
+            AvaliacaoAgregada agregado = avaliacaoAgregadaRepository.findParaAtualizar(artefatoId)
+                    .orElseGet(() -> new AvaliacaoAgregada(artefatoId));
+            for (ComentarioDTO comentario : entrada.getValue()) {
+                agregado.registrar(comentario.getAvaliacaoSolucao(), comentario.getAvaliacaoVideo(), comentario.getAvaliacaoImpacto());
+            }
+            avaliacaoAgregadaRepository.save(agregado);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public AvaliacaoAgregada buscar(Long artefatoId) {
+        return avaliacaoAgregadaRepository.findById(artefatoId).orElseGet(() -> new AvaliacaoAgregada(artefatoId));
+    }
+
+    // Preenche o campo 'avaliacoes' de cada artefato com uma única consulta
+    @Transactional(readOnly = true)
+    public <T extends Iterable<Artefato>> T preencher(T artefatos) {
+        List<Long> ids = new ArrayList<>();
+        for (Artefato artefato : artefatos) {
+            ids.add(artefato.getId());
+        }
+        Map<Long, AvaliacaoAgregada> porId = buscarTodos(ids);
+        for (Artefato artefato : artefatos) {
+            artefato.setAvaliacoes(porId.get(artefato.getId()));
+        }
+        return artefatos;
+    }
+
+    // Agregado de cada id pedido (vazio para quem ainda não tem linha), com uma única consulta
+    @Transactional(readOnly = true)
+    public Map<Long, AvaliacaoAgregada> buscarTodos(Collection<Long> artefatoIds) {
+        Map<Long, AvaliacaoAgregada> porId = new HashMap<>();
+        for (AvaliacaoAgregada agregado : avaliacaoAgregadaRepository.findAllById(artefatoIds)) {
+            porId.put(agregado.getArtefatoId(), agregado);
+        }
+        for (Long id : artefatoIds) {
+            porId.computeIfAbsent(id, AvaliacaoAgregada::new);
+        }
+        return porId;
+    }
+
+    // Agregados dos projetos aprovados com maior média na dimensão, exigindo um mínimo de avaliações
+    @Transactional(readOnly = true)
+    public List<AvaliacaoAgregada> ranking(String dimensao, long minimoAvaliacoes, int limite) {
+        PageRequest pagina = PageRequest.of(0, limite);
+        return switch (dimensao) {
+            case "solucao" -> avaliacaoAgregadaRepository.rankingSolucao(StatusProjeto.APROVADO, minimoAvaliacoes, pagina);
+            case "video" -> avaliacaoAgregadaRepository.rankingVideo(StatusProjeto.APROVADO, minimoAvaliacoes, pagina);
+            case "impacto" -> avaliacaoAgregadaRepository.rankingImpacto(StatusProjeto.APROVADO, minimoAvaliacoes, pagina);
+            default -> throw new IllegalArgumentException("Dimensão de avaliação desconhecida: " + dimensao);
+        };
+    }
+}
@@ -0,0 +1,284 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseLightStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Índice de texto completo (Lucene, em memória) sobre titulo, autor e descricao.
+// Os termos passam por minúsculas, remoção de acentos e stemming leve em português,
+// então "automação", "automacao" e "automações" caem no mesmo termo.
+@Service
+public class BuscaService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaService.class);
+
+    private static final String CAMPO_ID = "id";
+    private static final String[] CAMPOS_TEXTO = {"titulo", "autor", "descricao"};
+    private static final float[] PESOS_TEXTO = {3f, 2f, 1f};
+
+    @Autowired
+    private ArtefatoRepository artefatoRepository;
+
+    private final Analyzer analisador = new AnalisadorPortugues();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean pronto = false;
+
+    public BuscaService() {
+        try {
+            this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analisador));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not initialize search index", e);
+        }
+    }
+
+    // Reconstrói o índice a partir do banco quando a aplicação termina de subir.
+    // Até lá o controller continua usando a busca por LIKE.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        try {
+            writer.deleteAll();
+            for (Artefato artefato : artefatoRepository.findAll()) {
+                writer.updateDocument(new Term(CAMPO_ID, String.valueOf(artefato.getId())), toDocument(artefato));
+            }
+            searcherManager.maybeRefreshBlocking();
+            pronto = true;
+            log.info("Índice de busca reconstruído com {} artefatos", writer.getDocStats().numDocs);
+        } catch (IOException e) {
+            log.error("Falha ao reconstruir o índice de busca", e);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public void indexar(Artefato artefato) {
+        try {
+            writer.updateDocument(new Term(CAMPO_ID, String.valueOf(artefato.getId())), toDocument(artefato));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index artefato " + artefato.getId(), e);
+        }
+    }
+
+    // Para lotes (ex.: importação): os documentos só aparecem na busca depois de atualizarLeitor(),
+    // chamado uma vez no fim em vez de um refresh por artefato
+    public void indexarTodos(Collection<Artefato> artefatos) {
+        try {
+            for (Artefato artefato : artefatos) {
+                writer.updateDocument(new Term(CAMPO_ID, String.valueOf(artefato.getId())), toDocument(artefato));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index " + artefatos.size() + " artefatos", e);
+        }
+    }
+
+    public void atualizarLeitor() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to refresh search index", e);
+        }
+    }
+
+    public void remover(long id) {
+        try {
+            writer.deleteDocuments(new Term(CAMPO_ID, String.valueOf(id)));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove artefato " + id + " from index", e);
+        }
+    }
+
+    // Devolve os ids dos artefatos em ordem de relevância, pulando os 'inicio' primeiros.
+    // Os filtros seguem a mesma semântica de ArtefatoRepository.searchByStatus (null = sem filtro).
+    public List<Long> buscar(String texto, String status, String curso, String campus, String categoria,
+                             Integer semestre, LocalDate dataInicial, LocalDate dataFinal,
+                             int inicio, int quantidade) {
+        List<String> termos = analisar(texto);
+        List<Long> ids = new ArrayList<>();
+        if (termos.isEmpty() || quantidade <= 0) {
+            return ids;
+        }
+
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        for (int i = 0; i < termos.size(); i++) {
+            // O último termo também casa por prefixo, para quem ainda está digitando ("autom")
+            consulta.add(consultaTermo(termos.get(i), i == termos.size() - 1), BooleanClause.Occur.MUST);
+        }
+        adicionarFiltro(consulta, "status", status);
+        adicionarFiltro(consulta, "curso", curso);
+        adicionarFiltro(consulta, "campus", campus);
+        adicionarFiltro(consulta, "categoria", categoria);
+        if (semestre != null) {
+            consulta.add(IntPoint.newExactQuery("semestre", semestre), BooleanClause.Occur.FILTER);
+        }
+        if (dataInicial != null || dataFinal != null) {
+            long de = dataInicial == null ? Long.MIN_VALUE : dataInicial.toEpochDay();
+            long ate = dataFinal == null ? Long.MAX_VALUE : dataFinal.toEpochDay();
+            consulta.add(LongPoint.newRangeQuery("dataCriacao", de, ate), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int limite = (int) Math.min((long) inicio + quantidade, Math.max(1, searcher.getIndexReader().maxDoc()));
+                TopDocs resultado = searcher.search(consulta.build(), limite);
+                ScoreDoc[] docs = resultado.scoreDocs;
+                for (int i = inicio; i < docs.length; i++) {
+                    ids.add(Long.parseLong(searcher.storedFields().document(docs[i].doc).get(CAMPO_ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+        return ids;
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private Query consultaTermo(String termo, boolean prefixo) {
+        BooleanQuery.Builder campos = new BooleanQuery.Builder();
+        for (int i = 0; i < CAMPOS_TEXTO.length; i++) {
+            campos.add(new BoostQuery(new TermQuery(new Term(CAMPOS_TEXTO[i], termo)), PESOS_TEXTO[i]), BooleanClause.Occur.SHOULD);
+            if (prefixo) {
+                campos.add(new BoostQuery(new PrefixQuery(new Term(CAMPOS_TEXTO[i], termo)), PESOS_TEXTO[i] / 2), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return campos.build();
+    }
+
+    private void adicionarFiltro(BooleanQuery.Builder consulta, String campo, String valor) {
+        if (valor != null) {
+            consulta.add(new TermQuery(new Term(campo, valor)), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private List<String> analisar(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null) {
+            return termos;
+        }
+        try (TokenStream stream = analisador.tokenStream("titulo", texto)) {
+            CharTermAttribute termo = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                termos.add(termo.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return termos;
+    }
+
+    private Document toDocument(Artefato artefato) {
+        Document doc = new Document();
+        doc.add(new StringField(CAMPO_ID, String.valueOf(artefato.getId()), Field.Store.YES));
+        adicionarTexto(doc, "titulo", artefato.getTitulo());
+        adicionarTexto(doc, "autor", artefato.getAutor());
+        adicionarTexto(doc, "descricao", artefato.getDescricao());
+        adicionarValor(doc, "status", artefato.getStatus() == null ? null : artefato.getStatus().name());
+        adicionarValor(doc, "curso", artefato.getCurso());
+        adicionarValor(doc, "campus", artefato.getCampus());
+        adicionarValor(doc, "categoria", artefato.getCategoria());
+        if (artefato.getSemestre() != null) {
+            doc.add(new IntPoint("semestre", artefato.getSemestre()));
+        }
+        if (artefato.getDataCriacao() != null) {
+            doc.add(new LongPoint("dataCriacao", artefato.getDataCriacao().toEpochDay()));
+        }
+        return doc;
+    }
+
+    private void adicionarTexto(Document doc, String campo, String valor) {
+        if (valor != null) {
+            doc.add(new TextField(campo, valor, Field.Store.NO));
+        }
+    }
+
+    private void adicionarValor(Document doc, String campo, String valor) {
+        if (valor != null) {
+            doc.add(new StringField(campo, valor, Field.Store.NO));
+        }
+    }
+
+    // Tokenização padrão + minúsculas + remoção de acentos + stopwords + stemming leve (pt).
+    // Os acentos saem antes do stemming para que as formas com e sem acento gerem o mesmo radical.
+    private static class AnalisadorPortugues extends Analyzer {
+
+        private static final CharArraySet STOPWORDS = semAcentos(PortugueseAnalyzer.getDefaultStopSet());
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer origem = new StandardTokenizer();
+            TokenStream resultado = new LowerCaseFilter(origem);
+            resultado = new ASCIIFoldingFilter(resultado);
+            resultado = new StopFilter(resultado, STOPWORDS);
+            resultado = new PortugueseLightStemFilter(resultado);
+            return new TokenStreamComponents(origem, resultado);
+        }
+
+        private static CharArraySet semAcentos(CharArraySet palavras) {
+            CharArraySet resultado = new CharArraySet(palavras.size(), false);
+            for (Object palavra : palavras) {
+                String texto = new String((char[]) palavra);
+                resultado.add(Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", ""));
+            }
+            return resultado;
+        }
+    }
+}
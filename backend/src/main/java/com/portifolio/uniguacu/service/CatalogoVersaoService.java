@@ -0,0 +1,48 @@
+package com.portifolio.uniguacu.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versão do catálogo (qualquer mudança em artefatos ou comentários) e de cada artefato, usadas como ETag:
+// um polling com If-None-Match igual recebe 304 sem consulta ao banco nem serialização.
+// As versões devem subir DEPOIS do commit e da atualização dos índices; do contrário um leitor poderia
+// guardar dados antigos sob a versão nova. Ficam em memória, então o ETag leva o instante de início
+// para que um reinício não reaproveite números já entregues.
+// Os ETags são fracos (W/): a versão identifica os dados, não os bytes, e o Tomcat não comprime
+// respostas com ETag forte (a mesma versão sai com e sem gzip).
+@Service
+public class CatalogoVersaoService {
+
+    private final String inicio = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versao = new AtomicLong();
+    private final Map<Long, Long> versoesPorArtefato = new ConcurrentHashMap<>();
+    // Versão dos artefatos que nunca mudaram individualmente; sobe com as alterações em massa (importação)
+    private volatile long piso;
+
+    public void registrarAlteracao(long artefatoId) {
+        versoesPorArtefato.put(artefatoId, versao.incrementAndGet());
+    }
+
+    public void registrarAlteracoes(Iterable<Long> artefatoIds) {
+        long nova = versao.incrementAndGet();
+        for (Long id : artefatoIds) {
+            versoesPorArtefato.put(id, nova);
+        }
+    }
+
+    public void registrarAlteracaoEmMassa() {
+        piso = versao.incrementAndGet();
+    }
+
+    public String etagCatalogo() {
+        return "W/\"c-" + inicio + "-" + versao.get() + "\"";
+    }
+
+    public String etagArtefato(long artefatoId) {
+        long versaoArtefato = Math.max(piso, versoesPorArtefato.getOrDefault(artefatoId, 0L));
+        return "W/\"a" + artefatoId + "-" + inicio + "-" + versaoArtefato + "\"";
+    }
+}
@@ -0,0 +1,305 @@
+package com.portifolio.uniguacu.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.exception.SobrecargaException;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Ingestão write-behind dos comentários públicos: o POST só valida, gera o id e coloca o comentário
+// numa fila limitada. Uma thread grava a fila em lotes (JDBC batch + agregados de nota) quando junta
+// 'lote' comentários ou passa 'intervalo', numa transação por lote em vez de uma por comentário.
+// Fila cheia = 429 + Retry-After.
+@Service
+public class ComentarioIngestaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComentarioIngestaoService.class);
+
+    private static final String INSERT = "INSERT INTO comentario (id, artefato_id, nome, funcao_empresa, texto, " +
+            "avaliacao_solucao, avaliacao_video, avaliacao_impacto, data_criacao) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // ASSINCRONA: responde assim que o comentário entra na fila (202); um crash antes do flush o perde.
+    // CONFIRMADA: a requisição espera o commit do lote em que o comentário entrou (201), até 'espera-maxima'.
+    public enum Durabilidade { ASSINCRONA, CONFIRMADA }
+
+    private record Pendente(ComentarioDTO comentario, CompletableFuture<Void> gravado) {
+    }
+
+    @Autowired
+    private ArtefatoRepository artefatoRepository;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogoVersaoService catalogoVersaoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final boolean habilitado;
+    private final Durabilidade durabilidade;
+    private final int tamanhoLote;
+    private final Duration intervalo;
+    private final Duration esperaMaxima;
+    private final long retryAfterSegundos;
+    private final boolean threadsVirtuais;
+
+    private final BlockingQueue<Pendente> fila;
+    // Evita um SELECT por comentário só para conferir se o artefato existe
+    private final Cache<Long, Boolean> artefatosExistentes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .recordStats()
+            .build();
+
+    private final Timer tempoLote;
+    private final Counter rejeitados;
+    private final Counter descartados;
+
+    private SessionFactoryImplementor sessionFactory;
+    private BeforeExecutionGenerator geradorId;
+    private Thread flusher;
+    private volatile boolean ativo;
+
+    public ComentarioIngestaoService(@Value("${comentarios.write-behind.habilitado:true}") boolean habilitado,
+                                     @Value("${comentarios.write-behind.durabilidade:CONFIRMADA}") Durabilidade durabilidade,
+                                     @Value("${comentarios.write-behind.capacidade:10000}") int capacidade,
+                                     @Value("${comentarios.write-behind.lote:100}") int tamanhoLote,
+                                     @Value("${comentarios.write-behind.intervalo:PT0.1S}") Duration intervalo,
+                                     @Value("${comentarios.write-behind.espera-maxima:PT5S}") Duration esperaMaxima,
+                                     @Value("${comentarios.write-behind.retry-after-segundos:2}") long retryAfterSegundos,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais,
+                                     MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.durabilidade = durabilidade;
+        this.tamanhoLote = tamanhoLote;
+        this.intervalo = intervalo;
+        this.esperaMaxima = esperaMaxima;
+        this.retryAfterSegundos = retryAfterSegundos;
+        this.threadsVirtuais = threadsVirtuais;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+
+        Gauge.builder("comentarios.fila", fila, BlockingQueue::size)
+                .description("Comentários aceitos aguardando gravação")
+                .register(meterRegistry);
+        this.tempoLote = Timer.builder("comentarios.lote")
+                .description("Tempo de gravação de um lote de comentários")
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("comentarios.rejeitados")
+                .description("Comentários recusados com 429 por fila cheia")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("comentarios.descartados")
+                .description("Comentários aceitos que falharam ao gravar")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, artefatosExistentes, "comentarios.artefatos-existentes");
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        geradorId = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Comentario.class).getGenerator();
+        ativo = true;
+        // Passa a maior parte do tempo esperando a fila ou o banco: vira thread virtual junto com o Tomcat
+        Thread.Builder builder = threadsVirtuais ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        flusher = builder.name("comentarios-flusher").start(this::executarFlusher);
+    }
+
+    // Para de aceitar comentários e espera a fila esvaziar antes de o pool de conexões fechar
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        ativo = false;
+        flusher.join(Duration.ofSeconds(30).toMillis());
+        if (!fila.isEmpty()) {
+            log.error("{} comentários ficaram sem gravar no encerramento", fila.size());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public boolean existeArtefato(Long artefatoId) {
+        Boolean existe = artefatosExistentes.getIfPresent(artefatoId);
+        if (existe == null) {
+            existe = artefatoRepository.existsById(artefatoId);
+            // Só guarda os que existem: um artefato criado agora não fica "inexistente" no cache
+            if (existe) {
+                artefatosExistentes.put(artefatoId, true);
+            }
+        }
+        return existe;
+    }
+
+    // Artefato apagado: sem isto o cache responderia que ele existe por até 5 minutos
+    public void esquecerArtefato(Long artefatoId) {
+        artefatosExistentes.invalidate(artefatoId);
+    }
+
+    // Preenche id e data do comentário e o coloca na fila.
+    // Devolve true quando o comentário já está gravado (durabilidade CONFIRMADA e lote concluído a tempo).
+    public boolean enfileirar(ComentarioDTO comentario) {
+        if (!ativo) {
+            throw new SobrecargaException("Recebimento de comentários indisponível.", retryAfterSegundos);
+        }
+        comentario.setId(proximoId());
+        comentario.setDataCriacao(LocalDateTime.now());
+
+        Pendente pendente = new Pendente(comentario, new CompletableFuture<>());
+        if (!fila.offer(pendente)) {
+            rejeitados.increment();
+            throw new SobrecargaException("Muitos comentários sendo enviados. Tente novamente.", retryAfterSegundos);
+        }
+        if (durabilidade == Durabilidade.ASSINCRONA) {
+            return false;
+        }
+        try {
+            pendente.gravado().get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false; // Continua na fila; o cliente recebe 202
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // Com os campos já validados, o INSERT só viola uma restrição se o artefato foi apagado depois
+            // de conferido (chave estrangeira)
+            if (e.getCause() instanceof DataIntegrityViolationException) {
+                esquecerArtefato(comentario.getArtefatoId());
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Artefato não encontrado");
+            }
+            throw new RuntimeException("Falha ao gravar o comentário", e.getCause());
+        }
+    }
+
+    // Usa o gerador da própria entidade (sequência em blocos de 50), então os ids não colidem com os de
+    // comentarioRepository.save(); a sessão só abre conexão quando o bloco em memória acaba
+    private Long proximoId() {
+        try (StatelessSession sessao = sessionFactory.openStatelessSession()) {
+            return (Long) geradorId.generate((SharedSessionContractImplementor) sessao, null, null, EventType.INSERT);
+        }
+    }
+
+    private void executarFlusher() {
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Pendente primeiro = fila.poll(intervalo.toNanos(), TimeUnit.NANOSECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                // Junta até 'lote' comentários ou até 'intervalo' depois do primeiro, o que vier antes
+                long prazo = System.nanoTime() + intervalo.toNanos();
+                while (lote.size() < tamanhoLote) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long restante = prazo - System.nanoTime();
+                    if (lote.size() >= tamanhoLote || restante <= 0) {
+                        break;
+                    }
+                    Pendente proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo != null) {
+                        lote.add(proximo);
+                    }
+                }
+                tempoLote.record(() -> gravar(lote));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado no flusher de comentários", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Pendente> lote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> inserir(lote));
+            // Depois do commit e antes de liberar quem espera o 201, para o próximo GET já ver a versão nova
+            catalogoVersaoService.registrarAlteracoes(lote.stream().map(pendente -> pendente.comentario().getArtefatoId()).toList());
+            lote.forEach(pendente -> pendente.gravado().complete(null));
+        } catch (RuntimeException e) {
+            // Um comentário ruim (ex.: artefato apagado nesse meio-tempo) não derruba o lote inteiro
+            log.warn("Falha ao gravar lote de {} comentários, gravando um a um", lote.size(), e);
+            for (Pendente pendente : lote) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> inserir(List.of(pendente)));
+                    catalogoVersaoService.registrarAlteracao(pendente.comentario().getArtefatoId());
+                    pendente.gravado().complete(null);
+                } catch (RuntimeException erro) {
+                    descartados.increment();
+                    log.error("Comentário {} do artefato {} descartado", pendente.comentario().getId(),
+                            pendente.comentario().getArtefatoId(), erro);
+                    pendente.gravado().completeExceptionally(erro);
+                }
+            }
+        }
+    }
+
+    private void inserir(List<Pendente> lote) {
+        jdbcTemplate.batchUpdate(INSERT, lote, lote.size(), (ps, pendente) -> {
+            ComentarioDTO comentario = pendente.comentario();
+            ps.setLong(1, comentario.getId());
+            ps.setLong(2, comentario.getArtefatoId());
+            ps.setString(3, comentario.getNome());
+            ps.setString(4, comentario.getFuncaoEmpresa());
+            ps.setString(5, comentario.getTexto());
+            ps.setObject(6, comentario.getAvaliacaoSolucao(), Types.INTEGER);
+            ps.setObject(7, comentario.getAvaliacaoVideo(), Types.INTEGER);
+            ps.setObject(8, comentario.getAvaliacaoImpacto(), Types.INTEGER);
+            ps.setObject(9, comentario.getDataCriacao());
+        });
+        avaliacaoService.registrarLote(lote.stream().map(Pendente::comentario).toList());
+    }
+}
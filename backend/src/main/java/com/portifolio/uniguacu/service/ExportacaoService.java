@@ -0,0 +1,104 @@
+package com.portifolio.uniguacu.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portifolio.uniguacu.config.LeituraReplica;
+import com.portifolio.uniguacu.dto.ArtefatoExportacaoDTO;
+import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.repository.ComentarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Exportação do catálogo aprovado em NDJSON (um artefato por linha), lida por cursor e escrita direto
+// na resposta. O persistence context é limpo a cada bloco, então a memória não cresce com o catálogo.
+// Só usado pela exportação do admin: criado no primeiro uso, fora da subida (ver ArtefatoController).
+// Relatório sem ETag que aceita alguns instantes de atraso: lido de uma réplica quando houver.
+@Lazy
+@Service
+public class ExportacaoService {
+
+    private static final int LINHAS_POR_BLOCO = 500; // igual ao fetch size das consultas
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ArtefatoRepository artefatoRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Os comentários vêm de um segundo cursor, na mesma ordem de artefato, e são casados como num merge join:
+    // só os comentários do artefato atual ficam em memória
+    @LeituraReplica
+    public long exportar(OutputStream saida, boolean incluirComentarios, boolean incluirAvaliacoes) throws IOException {
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long linhas = 0;
+
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+             Stream<Object[]> artefatos = artefatoRepository.streamParaExportacao(StatusProjeto.APROVADO);
+             Stream<ComentarioDTO> comentarios = incluirComentarios
+                     ? comentarioRepository.streamParaExportacao(StatusProjeto.APROVADO)
+                     : Stream.empty()) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<ComentarioDTO> proximosComentarios = comentarios.iterator();
+            ComentarioDTO pendente = null;
+
+            Iterator<Object[]> linhasArtefato = artefatos.iterator();
+            while (linhasArtefato.hasNext()) {
+                Object[] linha = linhasArtefato.next();
+                Artefato artefato = (Artefato) linha[0];
+                if (incluirAvaliacoes) {
+                    AvaliacaoAgregada agregado = (AvaliacaoAgregada) linha[1];
+                    artefato.setAvaliacoes(agregado != null ? agregado : new AvaliacaoAgregada(artefato.getId()));
+                }
+
+                List<ComentarioDTO> doArtefato = null;
+                if (incluirComentarios) {
+                    doArtefato = new ArrayList<>();
+                    while (pendente != null || proximosComentarios.hasNext()) {
+                        ComentarioDTO comentario = pendente != null ? pendente : proximosComentarios.next();
+                        pendente = null;
+                        if (comentario.getArtefatoId() > artefato.getId()) {
+                            pendente = comentario; // pertence a um artefato que ainda não chegou
+                            break;
+                        }
+                        if (comentario.getArtefatoId() == artefato.getId()) {
+                            doArtefato.add(comentario);
+                        }
+                    }
+                }
+
+                escritor.writeValue(gerador, new ArtefatoExportacaoDTO(artefato, doArtefato));
+                gerador.writeRaw('\n');
+                linhas++;
+
+                if (linhas % LINHAS_POR_BLOCO == 0) {
+                    entityManager.clear();
+                    gerador.flush();
+                }
+            }
+            gerador.flush();
+        }
+        return linhas;
+    }
+}
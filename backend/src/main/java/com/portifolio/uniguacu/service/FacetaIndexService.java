@@ -0,0 +1,386 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice em memória do catálogo APROVADO para os filtros da Home (curso, campus, categoria, semestre).
+// Cada valor de faceta é um BitSet em que o bit N indica o artefato de id N, então combinar filtros
+// é um AND entre bitmaps e contar resultados é um popcount, sem ida ao banco.
+@Service
+public class FacetaIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetaIndexService.class);
+
+    public static final String[] FACETAS = {"curso", "campus", "categoria", "semestre"};
+
+    // Maior que qualquer dia: sem data vem antes dos datados na ordem decrescente, como o NULLS FIRST do banco
+    private static final int SEM_DATA = Integer.MAX_VALUE;
+
+    @Autowired
+    private ArtefatoRepository artefatoRepository;
+
+    private final long memoriaMaximaBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private BitSet aprovados = new BitSet();
+    private Map<String, Map<String, BitSet>> valores = novasFacetas();
+    private int[] diaCriacao = new int[0]; // epochDay de cada id, para ordenar e filtrar por data
+    private volatile boolean pronto = false;
+
+    public FacetaIndexService(@Value("${facetas.memoria-maxima-bytes:67108864}") long memoriaMaximaBytes,
+                              MeterRegistry meterRegistry) {
+        this.memoriaMaximaBytes = memoriaMaximaBytes;
+        Gauge.builder("facetas.memoria", this, FacetaIndexService::memoriaEstimadaBytes)
+                .baseUnit("bytes")
+                .description("Memória ocupada pelos bitmaps do índice de facetas")
+                .register(meterRegistry);
+        Gauge.builder("facetas.artefatos", this, indice -> indice.isPronto() ? indice.totalAprovados() : 0)
+                .description("Artefatos aprovados presentes no índice de facetas")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            aprovados = new BitSet();
+            valores = novasFacetas();
+            diaCriacao = new int[0];
+            pronto = true;
+            for (Artefato artefato : artefatoRepository.findByStatus(StatusProjeto.APROVADO)) {
+                adicionar(artefato);
+            }
+            verificarMemoria();
+            if (pronto) {
+                log.info("Índice de facetas reconstruído com {} artefatos ({} bytes)", aprovados.cardinality(), memoriaEstimadaBytes());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Quando o índice ultrapassa o limite de memória ele se desliga e o controller volta a consultar o banco
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public void indexar(Artefato artefato) {
+        lock.writeLock().lock();
+        try {
+            remover(artefato.getId());
+            if (artefato.getStatus() == StatusProjeto.APROVADO) {
+                adicionar(artefato);
+                verificarMemoria();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Para lotes (ex.: importação): um único lock e uma única verificação de memória
+    public void indexarTodos(Collection<Artefato> artefatos) {
+        lock.writeLock().lock();
+        try {
+            for (Artefato artefato : artefatos) {
+                remover(artefato.getId());
+                if (artefato.getStatus() == StatusProjeto.APROVADO) {
+                    adicionar(artefato);
+                }
+            }
+            verificarMemoria();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int bit = (int) id;
+            aprovados.clear(bit);
+            for (Map<String, BitSet> faceta : valores.values()) {
+                for (BitSet bits : faceta.values()) {
+                    bits.clear(bit);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids que atendem aos filtros, ordenados por (data_criacao, id) decrescente e começando logo
+    // após o cursor, como em ArtefatoRepository.searchByStatusAposCursor. Sem cursorId começa do início;
+    // cursorId com cursorData nula é um cursor parado num artefato sem data.
+    public List<Long> buscarIds(String curso, String campus, String categoria, Integer semestre,
+                                LocalDate dataInicial, LocalDate dataFinal,
+                                LocalDate cursorData, Long cursorId, int limite) {
+        lock.readLock().lock();
+        try {
+            BitSet resultado = filtrar(curso, campus, categoria, semestre, dataInicial, dataFinal, null);
+            long cursorChave = cursorId == null ? Long.MAX_VALUE
+                    : chave(cursorData == null ? SEM_DATA : (int) cursorData.toEpochDay(), cursorId);
+            long[] maiores = maioresChaves(resultado, cursorChave, limite);
+            List<Long> ids = new ArrayList<>(maiores.length);
+            for (long c : maiores) {
+                ids.add(c & 0xFFFFFFFFL);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Contagem por valor de cada faceta. A contagem de uma faceta aplica todos os filtros menos
+    // o dela mesma, para que a tela mostre quantos projetos cada alternativa traria.
+    // 'restricao' (opcional) limita a contagem a um conjunto de ids, ex.: resultado da busca textual.
+    public Map<String, Map<String, Integer>> contar(String curso, String campus, String categoria, Integer semestre,
+                                                    LocalDate dataInicial, LocalDate dataFinal, BitSet restricao) {
+        lock.readLock().lock();
+        try {
+            Map<String, String> filtros = new HashMap<>();
+            filtros.put("curso", curso);
+            filtros.put("campus", campus);
+            filtros.put("categoria", categoria);
+            filtros.put("semestre", semestre == null ? null : String.valueOf(semestre));
+
+            Map<String, Map<String, Integer>> contagens = new LinkedHashMap<>();
+            for (String faceta : FACETAS) {
+                BitSet base = filtrar(
+                        faceta.equals("curso") ? null : curso,
+                        faceta.equals("campus") ? null : campus,
+                        faceta.equals("categoria") ? null : categoria,
+                        faceta.equals("semestre") ? null : semestre,
+                        dataInicial, dataFinal, restricao);
+                Map<String, Integer> porValor = new TreeMap<>();
+                for (Map.Entry<String, BitSet> valor : valores.get(faceta).entrySet()) {
+                    BitSet intersecao = (BitSet) base.clone();
+                    intersecao.and(valor.getValue());
+                    int total = intersecao.cardinality();
+                    if (total > 0 || valor.getKey().equals(filtros.get(faceta))) {
+                        porValor.put(valor.getKey(), total);
+                    }
+                }
+                contagens.put(faceta, porValor);
+            }
+            return contagens;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LocalDate dataCriacao(long id) {
+        lock.readLock().lock();
+        try {
+            int dia = id < diaCriacao.length ? diaCriacao[(int) id] : SEM_DATA;
+            return dia == SEM_DATA ? null : LocalDate.ofEpochDay(dia);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoriaEstimadaBytes() {
+        lock.readLock().lock();
+        try {
+            long total = aprovados.size() / 8 + (long) diaCriacao.length * Integer.BYTES;
+            for (Map<String, BitSet> faceta : valores.values()) {
+                for (BitSet bits : faceta.values()) {
+                    total += bits.size() / 8;
+                }
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int totalAprovados() {
+        lock.readLock().lock();
+        try {
+            return aprovados.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Chamado com o write lock adquirido
+    private void adicionar(Artefato artefato) {
+        if (!pronto) {
+            return;
+        }
+        if (artefato.getId() < 0 || artefato.getId() > Integer.MAX_VALUE) {
+            desligar("id " + artefato.getId() + " não cabe em um bitmap");
+            return;
+        }
+        int bit = (int) artefato.getId();
+        aprovados.set(bit);
+        marcar("curso", artefato.getCurso(), bit);
+        marcar("campus", artefato.getCampus(), bit);
+        marcar("categoria", artefato.getCategoria(), bit);
+        marcar("semestre", artefato.getSemestre() == null ? null : String.valueOf(artefato.getSemestre()), bit);
+
+        if (bit >= diaCriacao.length) {
+            int tamanhoAnterior = diaCriacao.length;
+            diaCriacao = Arrays.copyOf(diaCriacao, Math.max(bit + 1, tamanhoAnterior * 2));
+            Arrays.fill(diaCriacao, tamanhoAnterior, diaCriacao.length, SEM_DATA);
+        }
+        diaCriacao[bit] = artefato.getDataCriacao() == null ? SEM_DATA : (int) artefato.getDataCriacao().toEpochDay();
+    }
+
+    // Chamado com o write lock adquirido
+    private void verificarMemoria() {
+        long memoria = memoriaEstimadaBytes();
+        if (pronto && memoria > memoriaMaximaBytes) {
+            desligar("memória estimada de " + memoria + " bytes acima do limite de " + memoriaMaximaBytes);
+        }
+    }
+
+    private void marcar(String faceta, String valor, int bit) {
+        if (valor != null) {
+            valores.get(faceta).computeIfAbsent(valor, v -> new BitSet()).set(bit);
+        }
+    }
+
+    private void desligar(String motivo) {
+        log.warn("Índice de facetas desativado: {}", motivo);
+        pronto = false;
+        aprovados = new BitSet();
+        valores = novasFacetas();
+        diaCriacao = new int[0];
+    }
+
+    // Chamado com o read lock adquirido
+    private BitSet filtrar(String curso, String campus, String categoria, Integer semestre,
+                           LocalDate dataInicial, LocalDate dataFinal, BitSet restricao) {
+        BitSet resultado = (BitSet) aprovados.clone();
+        intersectar(resultado, "curso", curso);
+        intersectar(resultado, "campus", campus);
+        intersectar(resultado, "categoria", categoria);
+        intersectar(resultado, "semestre", semestre == null ? null : String.valueOf(semestre));
+        if (restricao != null) {
+            resultado.and(restricao);
+        }
+        if (dataInicial != null || dataFinal != null) {
+            int de = dataInicial == null ? Integer.MIN_VALUE + 1 : (int) dataInicial.toEpochDay();
+            int ate = dataFinal == null ? Integer.MAX_VALUE : (int) dataFinal.toEpochDay();
+            for (int bit = resultado.nextSetBit(0); bit >= 0; bit = resultado.nextSetBit(bit + 1)) {
+                int dia = diaCriacao[bit];
+                if (dia == SEM_DATA || dia < de || dia > ate) {
+                    resultado.clear(bit);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private void intersectar(BitSet resultado, String faceta, String valor) {
+        if (valor == null) {
+            return;
+        }
+        BitSet bits = valores.get(faceta).get(valor);
+        if (bits == null) {
+            resultado.clear();
+        } else {
+            resultado.and(bits);
+        }
+    }
+
+    // (dia, id) empacotados num long: a ordem numérica é a mesma de ORDER BY data_criacao, id
+    private static long chave(int dia, long id) {
+        return ((long) dia << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    // Seleciona as 'limite' maiores chaves abaixo do cursor com um min-heap de primitivos, em ordem decrescente
+    private long[] maioresChaves(BitSet resultado, long cursorChave, int limite) {
+        long[] heap = new long[Math.max(0, Math.min(limite, resultado.cardinality()))];
+        int tamanho = 0;
+        for (int bit = resultado.nextSetBit(0); bit >= 0 && heap.length > 0; bit = resultado.nextSetBit(bit + 1)) {
+            long c = chave(diaCriacao[bit], bit);
+            if (c >= cursorChave) {
+                continue;
+            }
+            if (tamanho < heap.length) {
+                heap[tamanho] = c;
+                subir(heap, tamanho++);
+            } else if (c > heap[0]) {
+                heap[0] = c;
+                descer(heap, tamanho);
+            }
+        }
+        long[] ordenadas = Arrays.copyOf(heap, tamanho);
+        Arrays.sort(ordenadas);
+        for (int i = 0, j = ordenadas.length - 1; i < j; i++, j--) {
+            long t = ordenadas[i];
+            ordenadas[i] = ordenadas[j];
+            ordenadas[j] = t;
+        }
+        return ordenadas;
+    }
+
+    private static void subir(long[] heap, int i) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (heap[pai] <= heap[i]) {
+                return;
+            }
+            long t = heap[pai];
+            heap[pai] = heap[i];
+            heap[i] = t;
+            i = pai;
+        }
+    }
+
+    private static void descer(long[] heap, int tamanho) {
+        int i = 0;
+        while (true) {
+            int menor = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && heap[esquerda] < heap[menor]) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && heap[direita] < heap[menor]) {
+                menor = direita;
+            }
+            if (menor == i) {
+                return;
+            }
+            long t = heap[menor];
+            heap[menor] = heap[i];
+            heap[i] = t;
+            i = menor;
+        }
+    }
+
+    private static Map<String, Map<String, BitSet>> novasFacetas() {
+        Map<String, Map<String, BitSet>> facetas = new HashMap<>();
+        for (String faceta : FACETAS) {
+            facetas.put(faceta, new HashMap<>());
+        }
+        return facetas;
+    }
+}
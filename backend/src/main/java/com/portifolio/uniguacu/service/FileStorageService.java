@@ -1,41 +1,110 @@
 package com.portifolio.uniguacu.service;
 
 import com.portifolio.uniguacu.config.StorageProperties;
+import com.portifolio.uniguacu.model.ArquivoArmazenado;
+import com.portifolio.uniguacu.repository.ArquivoArmazenadoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+// Armazenamento dos uploads. No modo endereçado por conteúdo o arquivo é gravado num temporário
+// enquanto o SHA-256 é calculado; se o conteúdo já existe, o arquivo que já estava em disco é reaproveitado.
+// Em disco fica em ab/cd/<sha256>.<ext>, mas o nome entregue ao cliente é só <sha256>.<ext>.
+// A contagem de referências é de quem cita o nome (artefatos, fotos de perfil), não de uploads: o mesmo
+// nome pode ser citado sem um upload novo (ex.: importação, cópia de outro artefato). Quem passa a citar
+// chama reter, na transação que grava a citação; quem deixa de citar chama liberar, depois do commit.
+// Upload que ninguém citou dentro de storage.prazo-nao-citados é apagado por apagarNaoCitados.
+// Nomes UUID antigos (na raiz do diretório) continuam sendo servidos normalmente.
 @Service
 public class FileStorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final Pattern NOME_POR_CONTEUDO = Pattern.compile("\\b([0-9a-f]{64})(\\.[A-Za-z0-9]{1,15})?\\b");
+    private static final Pattern EXTENSAO_VALIDA = Pattern.compile("\\.[A-Za-z0-9]{1,15}");
+
     private final Path rootLocation;
+    private final Path tempLocation;
+    private final Path variantesLocation;
+    private final boolean enderecadoPorConteudo;
+    private final Duration prazoNaoCitados;
+
+    @Autowired
+    private ArquivoArmazenadoRepository arquivoArmazenadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectProvider<ImagemVarianteService> imagemVarianteService;
 
     @Autowired
     public FileStorageService(StorageProperties properties) {
-        this.rootLocation = Paths.get(properties.getLocation());
+        this.rootLocation = Paths.get(properties.getLocation()).toAbsolutePath().normalize();
+        // Temporários no mesmo sistema de arquivos, para que a mudança para o destino seja um rename atômico
+        this.tempLocation = rootLocation.resolve(".tmp");
+        this.variantesLocation = rootLocation.resolve(".variantes");
+        this.enderecadoPorConteudo = properties.isEnderecadoPorConteudo();
+        this.prazoNaoCitados = properties.getPrazoNaoCitados();
         try {
             Files.createDirectories(rootLocation); // Cria o diretório se não existir
+            Files.createDirectories(tempLocation);
         } catch (IOException e) {
             throw new RuntimeException("Could not initialize storage", e);
         }
     }
 
+    // Imagens já saem com as variantes reduzidas agendadas (ver ImagemVarianteService)
     public String store(MultipartFile file) {
+        String filename = gravar(file);
+        load(filename).ifPresent(arquivo -> imagemVarianteService.getObject().agendar(filename, arquivo));
+        return filename;
+    }
+
+    private String gravar(MultipartFile file) {
         try {
             if (file.isEmpty()) {
                 throw new RuntimeException("Failed to store empty file.");
             }
+            String extension = extensao(file.getOriginalFilename());
+            if (enderecadoPorConteudo) {
+                return storePorConteudo(file, extension);
+            }
+
             // Gera um nome de arquivo único para evitar conflitos
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
             String newFilename = UUID.randomUUID().toString() + extension;
 
             Path destinationFile = this.rootLocation.resolve(Paths.get(newFilename))
@@ -49,4 +118,252 @@ public class FileStorageService {
             throw new RuntimeException("Failed to store file.", e);
         }
     }
-}
\ No newline at end of file
+
+    // Arquivo já montado em disco (ex.: upload em partes), criado com criarTemporario. Recebe o mesmo
+    // nome final de um upload comum; o arquivo é movido (não copiado) e deixa de existir no caminho original.
+    public String store(Path montado, String originalFilename) {
+        String extension = extensao(originalFilename);
+        String filename;
+        try {
+            if (enderecadoPorConteudo) {
+                String sha256 = sha256(montado);
+                long tamanho = Files.size(montado);
+                try {
+                    filename = registrar(sha256, extension, tamanho, montado);
+                } catch (DataIntegrityViolationException e) {
+                    filename = registrar(sha256, extension, tamanho, montado);
+                }
+            } else {
+                filename = UUID.randomUUID().toString() + extension;
+                Files.move(montado, rootLocation.resolve(filename), StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.deleteIfExists(montado); // Conteúdo repetido: o arquivo já existente é mantido
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file.", e);
+        }
+        String nome = filename;
+        load(nome).ifPresent(arquivo -> imagemVarianteService.getObject().agendar(nome, arquivo));
+        return nome;
+    }
+
+    // Temporário no diretório de uploads, pronto para ser entregue a store(Path, String)
+    public Path criarTemporario(String prefixo) throws IOException {
+        return Files.createTempFile(tempLocation, prefixo, ".part");
+    }
+
+    // Remove temporários deixados por uma execução anterior (ex.: sessões de upload que só existiam em memória)
+    public void apagarTemporarios(String prefixo) {
+        try (DirectoryStream<Path> temporarios = Files.newDirectoryStream(tempLocation, prefixo + "*.part")) {
+            for (Path temporario : temporarios) {
+                Files.deleteIfExists(temporario);
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível limpar os temporários {}*", prefixo, e);
+        }
+    }
+
+    // Caminho de um arquivo salvo, se ele existir. Nomes que escapam do diretório de upload
+    // (ex.: "../application.properties") são tratados como inexistentes.
+    public Optional<Path> load(String filename) {
+        Matcher porConteudo = NOME_POR_CONTEUDO.matcher(filename);
+        Path arquivo = porConteudo.matches()
+                ? caminhoPorConteudo(porConteudo.group(1), filename.substring(64))
+                : rootLocation.resolve(filename).normalize();
+        if (!arquivo.startsWith(rootLocation) || arquivo.startsWith(tempLocation)
+                || arquivo.startsWith(variantesLocation)
+                || !Files.isRegularFile(arquivo) || !Files.isReadable(arquivo)) {
+            return Optional.empty();
+        }
+        return Optional.of(arquivo);
+    }
+
+    // Nomes endereçados por conteúdo citados nos textos (ex.: urlImagemPrincipal e o JSON de listaImagens)
+    public Set<String> nomesReferenciados(String... textos) {
+        Set<String> nomes = new LinkedHashSet<>();
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            Matcher matcher = NOME_POR_CONTEUDO.matcher(texto);
+            while (matcher.find()) {
+                nomes.add(matcher.group());
+            }
+        }
+        return nomes;
+    }
+
+    // Toma uma referência para um nome que passou a ser citado (ex.: artefato criado ou editado).
+    // Nomes do modo antigo (UUID) são ignorados: não têm contagem de referências.
+    // Se o conteúdo não existe mais (um liberar ou a limpeza de não citados o apagou depois do upload),
+    // lança 409 para desfazer a transação que grava a citação: o cliente precisa enviar o arquivo de novo.
+    public void reter(String filename) {
+        Matcher porConteudo = filename == null ? null : NOME_POR_CONTEUDO.matcher(filename);
+        if (porConteudo == null || !porConteudo.matches()) {
+            return;
+        }
+        String sha256 = porConteudo.group(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<ArquivoArmazenado> existente = arquivoArmazenadoRepository.findParaAtualizar(sha256);
+            if (existente.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Arquivo " + filename + " não está mais no armazenamento. Envie-o de novo.");
+            }
+            ArquivoArmazenado arquivo = existente.get();
+            arquivo.setReferencias(arquivo.getReferencias() + 1);
+            arquivoArmazenadoRepository.save(arquivo);
+        });
+    }
+
+    // Referências para todos os nomes, travando as linhas em ordem para que duas gravações
+    // concorrentes com os mesmos arquivos não entrem em deadlock. Um nome repetido conta uma vez por citação.
+    public void reterTodos(Collection<String> filenames) {
+        filenames.stream().sorted().forEach(this::reter);
+    }
+
+    // Devolve uma referência (ex.: foto trocada, artefato apagado). Na última, apaga o arquivo.
+    // Nomes do modo antigo (UUID) são ignorados: não têm contagem de referências.
+    public void liberar(String filename) {
+        if (filename == null) {
+            return;
+        }
+        Matcher porConteudo = NOME_POR_CONTEUDO.matcher(filename);
+        if (!porConteudo.matches()) {
+            return;
+        }
+        String sha256 = porConteudo.group(1);
+        transactionTemplate.executeWithoutResult(status ->
+                arquivoArmazenadoRepository.findParaAtualizar(sha256).ifPresent(arquivo -> {
+                    arquivo.setReferencias(arquivo.getReferencias() - 1);
+                    // Um upload que nunca chegou a ser citado tem zero referências e também é apagado aqui
+                    if (arquivo.getReferencias() > 0) {
+                        arquivoArmazenadoRepository.save(arquivo);
+                        return;
+                    }
+                    apagar(arquivo);
+                }));
+    }
+
+    // Apaga os uploads com zero referências gravados antes do prazo. Cada linha é relida travada: um reter
+    // ou um upload repetido que chegou depois da consulta mantém o arquivo.
+    public int apagarNaoCitados() {
+        LocalDateTime limite = LocalDateTime.now().minus(prazoNaoCitados);
+        int apagados = 0;
+        for (String sha256 : arquivoArmazenadoRepository.findNaoCitadosAntesDe(limite)) {
+            Boolean apagado = transactionTemplate.execute(status ->
+                    arquivoArmazenadoRepository.findParaAtualizar(sha256)
+                            .filter(arquivo -> arquivo.getReferencias() == 0 && arquivo.getDataCriacao().isBefore(limite))
+                            .map(arquivo -> {
+                                apagar(arquivo);
+                                return true;
+                            })
+                            .orElse(false));
+            if (Boolean.TRUE.equals(apagado)) {
+                apagados++;
+            }
+        }
+        if (apagados > 0) {
+            log.info("{} arquivos enviados e nunca citados foram apagados", apagados);
+        }
+        return apagados;
+    }
+
+    // Apagado com a linha ainda travada: um upload simultâneo do mesmo conteúdo espera o
+    // commit, não encontra a linha e grava o arquivo de novo
+    private void apagar(ArquivoArmazenado arquivo) {
+        arquivoArmazenadoRepository.delete(arquivo);
+        try {
+            Files.deleteIfExists(caminhoPorConteudo(arquivo.getSha256(), arquivo.getExtensao()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        imagemVarianteService.getObject().remover(arquivo.getNome());
+    }
+
+    private String storePorConteudo(MultipartFile file, String extension) throws IOException {
+        Path temporario = Files.createTempFile(tempLocation, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(inputStream, temporario, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            long tamanho = Files.size(temporario);
+            try {
+                return registrar(sha256, extension, tamanho, temporario);
+            } catch (DataIntegrityViolationException e) {
+                // Outro upload do mesmo conteúdo inseriu a linha antes: agora ela existe e só é incrementada
+                return registrar(sha256, extension, tamanho, temporario);
+            }
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    // Conteúdo novo: move o temporário para ab/cd/<sha256>.<ext> e cria a linha, ainda sem referências.
+    // Conteúdo repetido: mantém o arquivo (e a extensão) do primeiro upload. A linha é lida travada para
+    // não devolver o nome de um arquivo que um liberar concorrente está apagando; se ainda não é citada,
+    // o prazo da limpeza de não citados recomeça, como para um upload novo.
+    private String registrar(String sha256, String extension, long tamanho, Path temporario) {
+        return transactionTemplate.execute(status -> {
+            Optional<ArquivoArmazenado> existente = arquivoArmazenadoRepository.findParaAtualizar(sha256);
+            if (existente.isPresent()) {
+                ArquivoArmazenado arquivo = existente.get();
+                if (arquivo.getReferencias() == 0) {
+                    arquivo.setDataCriacao(LocalDateTime.now());
+                    arquivoArmazenadoRepository.save(arquivo);
+                }
+                return arquivo.getNome();
+            }
+            ArquivoArmazenado arquivo = new ArquivoArmazenado();
+            arquivo.setSha256(sha256);
+            arquivo.setExtensao(extension);
+            arquivo.setTamanho(tamanho);
+            arquivo.setReferencias(0);
+            Path destino = caminhoPorConteudo(sha256, extension);
+            try {
+                Files.createDirectories(destino.getParent());
+                // Se dois uploads iguais chegarem juntos, os dois arquivos têm o mesmo conteúdo
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store file.", e);
+            }
+            arquivoArmazenadoRepository.saveAndFlush(arquivo);
+            log.debug("Arquivo {} armazenado ({} bytes)", arquivo.getNome(), tamanho);
+            return arquivo.getNome();
+        });
+    }
+
+    private Path caminhoPorConteudo(String sha256, String extension) {
+        return rootLocation.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256 + extension);
+    }
+
+    // ".pdf" a partir do nome original; vazia quando não há extensão ou ela tem caracteres estranhos
+    private String extensao(String originalFilename) {
+        if (originalFilename == null || originalFilename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+        return EXTENSAO_VALIDA.matcher(extension).matches() ? extension : "";
+    }
+
+    private static String sha256(Path arquivo) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            while (canal.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.config.StorageProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Versões reduzidas das imagens enviadas (miniatura, card e tela cheia), geradas com ImageIO num pool
+// próprio e limitado. O upload agenda as três; se o FileController pedir uma que ainda não existe,
+// ela é agendada na hora e o original é servido até a variante ficar pronta.
+// Ficam em <storage>/.variantes/<tamanho>/<nome sem extensão>.jpg (ou .png, para PNG/GIF com transparência).
+// Criado no primeiro upload ou download de imagem (@Lazy, injetado por ObjectProvider): a subida não
+// inicializa o ImageIO nem o pool; a métrica imagens.variantes.fila aparece a partir desse uso.
+@Lazy
+@Service
+public class ImagemVarianteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagemVarianteService.class);
+
+    private static final Set<String> EXTENSOES_IMAGEM = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private static final String METADADOS_JPEG = "javax_imageio_jpeg_image_1.0";
+    private static final String MARCADOR_APP1 = "225"; // 0xE1, onde fica o EXIF
+    private static final int TAG_ORIENTACAO = 0x0112;
+    private static final int ORIENTACAO_NORMAL = 1;
+
+    public enum Tamanho {
+        THUMB(160), CARD(480), FULL(1600);
+
+        private final int ladoMaximo;
+
+        Tamanho(int ladoMaximo) {
+            this.ladoMaximo = ladoMaximo;
+        }
+
+        public static Optional<Tamanho> de(String valor) {
+            for (Tamanho tamanho : values()) {
+                if (tamanho.name().equalsIgnoreCase(valor)) {
+                    return Optional.of(tamanho);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final Path variantesLocation;
+    private final float qualidadeJpeg;
+    private final long pixelsMaximos;
+    private final ThreadPoolExecutor executor;
+    // Variantes já na fila ou em geração, para o mesmo arquivo não ser processado duas vezes
+    private final Map<Path, Boolean> emAndamento = new ConcurrentHashMap<>();
+
+    private final Timer tempoGeracao;
+    private final Counter falhas;
+
+    // Pixels decodificados e a orientação EXIF com que a câmera pediu para exibi-los
+    private record ImagemLida(BufferedImage pixels, int orientacao) {
+    }
+
+    public ImagemVarianteService(StorageProperties storageProperties,
+                                 @Value("${imagens.variantes.threads:0}") int threads,
+                                 @Value("${imagens.variantes.fila:100}") int fila,
+                                 @Value("${imagens.variantes.qualidade-jpeg:0.82}") float qualidadeJpeg,
+                                 @Value("${imagens.variantes.pixels-maximos:50000000}") long pixelsMaximos,
+                                 MeterRegistry meterRegistry) {
+        this.variantesLocation = Paths.get(storageProperties.getLocation()).toAbsolutePath().normalize().resolve(".variantes");
+        this.qualidadeJpeg = qualidadeJpeg;
+        this.pixelsMaximos = pixelsMaximos;
+        // Metade dos núcleos: redimensionar é CPU pura e não deve competir com as requisições
+        int tamanhoPool = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanhoPool, tamanhoPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                r -> {
+                    Thread thread = new Thread(r, "imagens-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ImageIO.setUseCache(false); // Decodifica em memória em vez de criar temporários em disco
+
+        Gauge.builder("imagens.variantes.fila", executor, e -> e.getQueue().size())
+                .description("Variantes de imagem aguardando geração")
+                .register(meterRegistry);
+        this.tempoGeracao = Timer.builder("imagens.variantes.geracao")
+                .description("Tempo para gerar as variantes de uma imagem")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("imagens.variantes.falhas")
+                .description("Imagens que não puderam ser convertidas")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public boolean isImagem(String nome) {
+        return EXTENSOES_IMAGEM.contains(extensao(nome));
+    }
+
+    // Agenda todas as variantes de uma imagem recém-enviada. Com a fila cheia não faz nada:
+    // cada variante ainda será gerada quando for pedida pela primeira vez.
+    public void agendar(String nome, Path original) {
+        if (!isImagem(nome)) {
+            return;
+        }
+        for (Tamanho tamanho : Tamanho.values()) {
+            agendar(nome, original, tamanho);
+        }
+    }
+
+    // Caminho da variante se ela já existe; caso contrário agenda a geração e devolve vazio
+    public Optional<Path> variante(String nome, Path original, Tamanho tamanho) {
+        if (!isImagem(nome)) {
+            return Optional.empty();
+        }
+        Path destino = caminho(nome, tamanho);
+        if (Files.isRegularFile(destino)) {
+            return Optional.of(destino);
+        }
+        agendar(nome, original, tamanho);
+        return Optional.empty();
+    }
+
+    // Chamado quando o original é apagado
+    public void remover(String nome) {
+        for (Tamanho tamanho : Tamanho.values()) {
+            try {
+                Files.deleteIfExists(caminho(nome, tamanho));
+            } catch (IOException e) {
+                log.warn("Não foi possível apagar a variante {} de {}", tamanho, nome, e);
+            }
+        }
+    }
+
+    private void agendar(String nome, Path original, Tamanho tamanho) {
+        Path destino = caminho(nome, tamanho);
+        if (Files.exists(destino) || emAndamento.putIfAbsent(destino, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    tempoGeracao.record(() -> gerar(original, destino, tamanho));
+                } finally {
+                    emAndamento.remove(destino);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            emAndamento.remove(destino);
+            log.debug("Fila de variantes cheia, {} {} fica para depois", nome, tamanho);
+        }
+    }
+
+    private void gerar(Path original, Path destino, Tamanho tamanho) {
+        try {
+            ImagemLida imagem = ler(original, tamanho.ladoMaximo);
+            if (imagem == null) {
+                return;
+            }
+            boolean png = destino.getFileName().toString().endsWith(".png");
+            // Gira depois de reduzir: o lado máximo é o mesmo e há bem menos pixels para mover
+            BufferedImage reduzida = orientar(reduzir(imagem.pixels(), tamanho.ladoMaximo, png), imagem.orientacao());
+            Files.createDirectories(destino.getParent());
+            Path temporario = Files.createTempFile(destino.getParent(), "variante-", ".part");
+            try {
+                escrever(reduzida, temporario, png);
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+        } catch (IOException | RuntimeException e) {
+            falhas.increment();
+            log.warn("Falha ao gerar a variante {} de {}", tamanho, original.getFileName(), e);
+        }
+    }
+
+    // Decodifica já com subamostragem quando a imagem é muito maior que o destino: uma foto de 4000x3000
+    // para miniatura não precisa ocupar 48 MB de pixels. Imagens gigantes (bomba de descompressão) são recusadas.
+    // Dos JPEG também lê a orientação EXIF, que a variante gravada (sem metadados) perderia.
+    private ImagemLida ler(Path original, int ladoMaximo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(original.toFile())) {
+            // Sem stream (ex.: arquivo que não abre) getImageReaders lançaria IllegalArgumentException
+            Iterator<ImageReader> leitores = entrada == null ? null : ImageIO.getImageReaders(entrada);
+            if (leitores == null || !leitores.hasNext()) {
+                log.debug("Formato de imagem não suportado: {}", original.getFileName());
+                return null;
+            }
+            ImageReader leitor = leitores.next();
+            try {
+                boolean jpeg = "jpeg".equalsIgnoreCase(leitor.getFormatName());
+                leitor.setInput(entrada, true, !jpeg);
+                int largura = leitor.getWidth(0);
+                int altura = leitor.getHeight(0);
+                if ((long) largura * altura > pixelsMaximos) {
+                    throw new IOException("Imagem com " + largura + "x" + altura + " pixels excede o limite");
+                }
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                // Mantém pelo menos o dobro do tamanho final para a redução em etapas ficar nítida
+                int passo = Math.max(1, Math.max(largura, altura) / (ladoMaximo * 2));
+                parametros.setSourceSubsampling(passo, passo, 0, 0);
+                int orientacao = jpeg ? orientacaoExif(leitor) : ORIENTACAO_NORMAL;
+                return new ImagemLida(leitor.read(0, parametros), orientacao);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    // Orientação do segmento APP1 (EXIF) nos metadados nativos do leitor JPEG; normal se não houver
+    // ou não der para ler
+    private int orientacaoExif(ImageReader leitor) {
+        try {
+            IIOMetadataNode raiz = (IIOMetadataNode) leitor.getImageMetadata(0).getAsTree(METADADOS_JPEG);
+            NodeList marcadores = raiz.getElementsByTagName("unknown");
+            for (int i = 0; i < marcadores.getLength(); i++) {
+                IIOMetadataNode marcador = (IIOMetadataNode) marcadores.item(i);
+                if (MARCADOR_APP1.equals(marcador.getAttribute("MarkerTag"))
+                        && marcador.getUserObject() instanceof byte[] app1) {
+                    int orientacao = orientacaoExif(app1);
+                    if (orientacao != ORIENTACAO_NORMAL) {
+                        return orientacao;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Metadados EXIF ilegíveis, imagem fica como está", e);
+        }
+        return ORIENTACAO_NORMAL;
+    }
+
+    // "Exif\0\0" seguido de um cabeçalho TIFF; a orientação é uma entrada SHORT do primeiro IFD
+    private static int orientacaoExif(byte[] app1) {
+        byte[] cabecalho = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        if (app1.length < cabecalho.length + 8
+                || !Arrays.equals(app1, 0, cabecalho.length, cabecalho, 0, cabecalho.length)) {
+            return ORIENTACAO_NORMAL;
+        }
+        try {
+            ByteBuffer tiff = ByteBuffer.wrap(app1, cabecalho.length, app1.length - cabecalho.length).slice();
+            tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            int ifd = tiff.getInt(4);
+            int entradas = Short.toUnsignedInt(tiff.getShort(ifd));
+            for (int i = 0; i < entradas; i++) {
+                int entrada = ifd + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entrada)) == TAG_ORIENTACAO) {
+                    int orientacao = Short.toUnsignedInt(tiff.getShort(entrada + 8));
+                    return orientacao >= 1 && orientacao <= 8 ? orientacao : ORIENTACAO_NORMAL;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            log.debug("Segmento EXIF truncado");
+        }
+        return ORIENTACAO_NORMAL;
+    }
+
+    // Aplica a orientação EXIF (2 a 8: espelhamentos e giros de 90°) para a variante sair de pé
+    private BufferedImage orientar(BufferedImage imagem, int orientacao) {
+        int w = imagem.getWidth();
+        int h = imagem.getHeight();
+        AffineTransform transformacao = switch (orientacao) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transformacao == null) {
+            return imagem;
+        }
+        boolean deitada = orientacao >= 5;
+        BufferedImage destino = new BufferedImage(deitada ? h : w, deitada ? w : h, imagem.getType());
+        Graphics2D g = destino.createGraphics();
+        try {
+            g.drawImage(imagem, transformacao, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    // Redução em etapas de no máximo metade (bilinear), que fica próxima da qualidade bicúbica bem mais barata
+    private BufferedImage reduzir(BufferedImage imagem, int ladoMaximo, boolean comTransparencia) {
+        int tipo = comTransparencia ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        double escala = Math.min(1.0, (double) ladoMaximo / Math.max(imagem.getWidth(), imagem.getHeight()));
+        int larguraFinal = Math.max(1, (int) Math.round(imagem.getWidth() * escala));
+        int alturaFinal = Math.max(1, (int) Math.round(imagem.getHeight() * escala));
+
+        BufferedImage atual = imagem;
+        int largura = imagem.getWidth();
+        int altura = imagem.getHeight();
+        do {
+            largura = Math.max(larguraFinal, largura / 2);
+            altura = Math.max(alturaFinal, altura / 2);
+            atual = desenhar(atual, largura, altura, tipo);
+        } while (largura != larguraFinal || altura != alturaFinal);
+        return atual;
+    }
+
+    private BufferedImage desenhar(BufferedImage origem, int largura, int altura, int tipo) {
+        BufferedImage destino = new BufferedImage(largura, altura, tipo);
+        Graphics2D g = destino.createGraphics();
+        try {
+            if (tipo == BufferedImage.TYPE_INT_RGB) {
+                g.setColor(Color.WHITE); // Fundo para imagens com transparência convertidas em JPEG
+                g.fillRect(0, 0, largura, altura);
+            }
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(origem, 0, 0, largura, altura, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    private void escrever(BufferedImage imagem, Path destino, boolean png) throws IOException {
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName(png ? "png" : "jpeg").next();
+        try (ImageOutputStream saida = ImageIO.createImageOutputStream(destino.toFile())) {
+            escritor.setOutput(saida);
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            if (!png) {
+                parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                parametros.setCompressionQuality(qualidadeJpeg);
+                parametros.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            escritor.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+    }
+
+    // PNG e GIF podem ter transparência e continuam PNG; o resto vira JPEG
+    private Path caminho(String nome, Tamanho tamanho) {
+        String extensao = extensao(nome);
+        String base = extensao.isEmpty() ? nome : nome.substring(0, nome.length() - extensao.length() - 1);
+        String formato = extensao.equals("png") || extensao.equals("gif") ? ".png" : ".jpg";
+        return variantesLocation.resolve(tamanho.name().toLowerCase(Locale.ROOT)).resolve(base + formato);
+    }
+
+    private String extensao(String nome) {
+        int ponto = nome.lastIndexOf('.');
+        return ponto < 0 ? "" : nome.substring(ponto + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,232 @@
+package com.portifolio.uniguacu.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.portifolio.uniguacu.dto.ImportacaoResultadoDTO;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Importação em massa de artefatos a partir de NDJSON (um objeto por linha) ou CSV com cabeçalho.
+// O corpo é lido linha a linha e gravado em transações de 'linhas-por-transacao' artefatos
+// (INSERTs em lote pelo hibernate.jdbc.batch_size), limpando o EntityManager a cada uma:
+// a memória usada não depende do tamanho do arquivo.
+// Só usado pela importação do admin: criado no primeiro uso, fora da subida (ver ArtefatoController)
+@Lazy
+@Service
+public class ImportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private static final int TAMANHO_MAXIMO_VARCHAR = 255;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private FacetaIndexService facetaIndexService;
+
+    @Autowired
+    private CatalogoVersaoService catalogoVersaoService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .findAndAddModules()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    @Value("${importacao.linhas-por-transacao:1000}")
+    private int linhasPorTransacao;
+
+    @Value("${importacao.maximo-erros:1000}")
+    private int maximoErros;
+
+    public ImportacaoResultadoDTO importarNdjson(InputStream corpo, StatusProjeto status) throws IOException {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        ObjectReader leitor = objectMapper.readerFor(Artefato.class);
+        List<Linha> pendentes = new ArrayList<>(linhasPorTransacao);
+
+        try (BufferedReader linhas = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            String texto;
+            long numero = 0;
+            while ((texto = linhas.readLine()) != null) {
+                numero++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                resultado.setLinhas(resultado.getLinhas() + 1);
+                try {
+                    aceitar(new Linha(numero, leitor.readValue(texto)), status, pendentes, resultado);
+                } catch (JsonProcessingException e) {
+                    rejeitar(resultado, numero, "JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+        }
+        gravar(pendentes, resultado);
+        buscaService.atualizarLeitor();
+        catalogoVersaoService.registrarAlteracaoEmMassa(); // Agora também visíveis na busca por texto
+        return resultado;
+    }
+
+    public ImportacaoResultadoDTO importarCsv(InputStream corpo, StatusProjeto status) throws IOException {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        ObjectReader leitor = csvMapper.readerFor(Artefato.class).with(CsvSchema.emptySchema().withHeader());
+        List<Linha> pendentes = new ArrayList<>(linhasPorTransacao);
+
+        try (Reader texto = new InputStreamReader(corpo, StandardCharsets.UTF_8);
+             MappingIterator<Artefato> registros = leitor.readValues(texto)) {
+            long numero = 1; // linha 1 = cabeçalho
+            while (true) {
+                try {
+                    if (!registros.hasNextValue()) {
+                        break;
+                    }
+                    numero++;
+                    resultado.setLinhas(resultado.getLinhas() + 1);
+                    aceitar(new Linha(numero, registros.nextValue()), status, pendentes, resultado);
+                } catch (DatabindException e) {
+                    // Valor que não converte (ex.: semestre "dois"): o iterador pula para o próximo registro
+                    rejeitar(resultado, numero, "CSV inválido: " + e.getOriginalMessage());
+                } catch (JsonProcessingException e) {
+                    // Arquivo quebrado (ex.: aspas sem fechamento): não há como achar o próximo registro
+                    rejeitar(resultado, numero, "CSV inválido, importação interrompida: " + e.getOriginalMessage());
+                    break;
+                }
+            }
+        }
+        gravar(pendentes, resultado);
+        buscaService.atualizarLeitor();
+        catalogoVersaoService.registrarAlteracaoEmMassa(); // Agora também visíveis na busca por texto
+        return resultado;
+    }
+
+    private void aceitar(Linha linha, StatusProjeto status, List<Linha> pendentes, ImportacaoResultadoDTO resultado) {
+        String erro = validar(linha.artefato());
+        if (erro != null) {
+            rejeitar(resultado, linha.numero(), erro);
+            return;
+        }
+        Artefato artefato = linha.artefato();
+        artefato.setId(0); // O id sempre vem da sequência
+        artefato.setStatus(status);
+        if (artefato.getDataCriacao() == null) {
+            artefato.setDataCriacao(LocalDate.now());
+        }
+        pendentes.add(linha);
+        if (pendentes.size() >= linhasPorTransacao) {
+            gravar(pendentes, resultado);
+        }
+    }
+
+    private String validar(Artefato artefato) {
+        if (artefato == null) {
+            return "Linha vazia.";
+        }
+        if (!StringUtils.hasText(artefato.getTitulo())) {
+            return "O título é obrigatório.";
+        }
+        if (artefato.getSemestre() != null && artefato.getSemestre() < 1) {
+            return "Semestre inválido: " + artefato.getSemestre();
+        }
+        if (excede(artefato.getCurso()) || excede(artefato.getCampus()) || excede(artefato.getCategoria())
+                || excede(artefato.getUrlImagemPrincipal()) || excede(artefato.getVideoYoutubeUrl())) {
+            return "Campo com mais de " + TAMANHO_MAXIMO_VARCHAR + " caracteres.";
+        }
+        return null;
+    }
+
+    private boolean excede(String valor) {
+        return valor != null && valor.length() > TAMANHO_MAXIMO_VARCHAR;
+    }
+
+    // Uma transação por bloco: INSERTs dos artefatos e dos agregados de avaliação vazios, referências
+    // dos arquivos citados, flush e clear
+    private void gravar(List<Linha> pendentes, ImportacaoResultadoDTO resultado) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<Artefato> artefatos = new ArrayList<>(pendentes.size());
+        for (Linha linha : pendentes) {
+            artefatos.add(linha.artefato());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> arquivos = new ArrayList<>();
+                for (Artefato artefato : artefatos) {
+                    entityManager.persist(artefato);
+                    entityManager.persist(new AvaliacaoAgregada(artefato.getId()));
+                    arquivos.addAll(fileStorageService.nomesReferenciados(artefato.getUrlImagemPrincipal(),
+                            artefato.getListaImagens(), artefato.getListaDocumentos()));
+                }
+                // Arquivos já armazenados citados pelos artefatos importados
+                fileStorageService.reterTodos(arquivos);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            resultado.setImportados(resultado.getImportados() + artefatos.size());
+            buscaService.indexarTodos(artefatos);
+            facetaIndexService.indexarTodos(artefatos);
+            catalogoVersaoService.registrarAlteracaoEmMassa();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar bloco de {} artefatos importados", artefatos.size(), e);
+            resultado.setRejeitados(resultado.getRejeitados() + artefatos.size());
+            registrarErro(resultado, pendentes.get(0).numero(), "Bloco até a linha " + pendentes.get(pendentes.size() - 1).numero()
+                    + " não gravado (" + artefatos.size() + " artefatos): " + e.getMessage());
+        }
+        pendentes.clear();
+    }
+
+    private void rejeitar(ImportacaoResultadoDTO resultado, long linha, String mensagem) {
+        resultado.setRejeitados(resultado.getRejeitados() + 1);
+        registrarErro(resultado, linha, mensagem);
+    }
+
+    private void registrarErro(ImportacaoResultadoDTO resultado, long linha, String mensagem) {
+        if (resultado.getErros().size() < maximoErros) {
+            resultado.getErros().add(new ImportacaoResultadoDTO.ErroLinha(linha, mensagem));
+        } else {
+            resultado.setErrosTruncados(true);
+        }
+    }
+
+    private record Linha(long numero, Artefato artefato) {
+    }
+}
@@ -0,0 +1,359 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.dto.UploadInicioRequest;
+import com.portifolio.uniguacu.dto.UploadSessaoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Upload em partes para arquivos acima do limite do multipart (vídeos de demonstração, relatórios grandes).
+// O cliente inicia a sessão, envia as partes em qualquer ordem (inclusive em paralelo), consulta quais o
+// servidor já tem para retomar depois de uma queda e conclui. Cada parte é gravada com escrita posicional
+// num arquivo pré-alocado e conferida pelo SHA-256; ao concluir, o arquivo segue para o FileStorageService.
+// As sessões ficam em memória: um reinício descarta as incompletas e o cliente começa de novo.
+@Service
+public class UploadParticionadoService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadParticionadoService.class);
+
+    private static final String PREFIXO_TEMPORARIO = "particionado-";
+    private static final int BUFFER_ESCRITA = 64 * 1024;
+
+    private final long tamanhoMaximo;
+    private final int tamanhoParte;
+    private final int tamanhoParteMinimo;
+    private final int tamanhoParteMaximo;
+    private final Duration expiracao;
+    private final int sessoesPorUsuario;
+
+    private final Map<String, Sessao> sessoes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService limpeza;
+    private final Counter expiradas;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    public UploadParticionadoService(@Value("${uploads.particionado.tamanho-maximo:2147483648}") long tamanhoMaximo,
+                                     @Value("${uploads.particionado.tamanho-parte:8388608}") int tamanhoParte,
+                                     @Value("${uploads.particionado.tamanho-parte-minimo:65536}") int tamanhoParteMinimo,
+                                     @Value("${uploads.particionado.tamanho-parte-maximo:33554432}") int tamanhoParteMaximo,
+                                     @Value("${uploads.particionado.expiracao:PT24H}") Duration expiracao,
+                                     @Value("${uploads.particionado.sessoes-por-usuario:5}") int sessoesPorUsuario,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais,
+                                     MeterRegistry meterRegistry) {
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tamanhoParte = tamanhoParte;
+        this.tamanhoParteMinimo = tamanhoParteMinimo;
+        this.tamanhoParteMaximo = tamanhoParteMaximo;
+        this.expiracao = expiracao;
+        this.sessoesPorUsuario = sessoesPorUsuario;
+        Thread.Builder builder = threadsVirtuais ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(builder.name("uploads-limpeza").factory());
+
+        Gauge.builder("uploads.particionados.sessoes", sessoes, Map::size)
+                .description("Uploads em partes em andamento")
+                .register(meterRegistry);
+        this.expiradas = Counter.builder("uploads.particionados.expirados")
+                .description("Uploads em partes abandonados e descartados")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciarLimpeza() {
+        fileStorageService.apagarTemporarios(PREFIXO_TEMPORARIO);
+        long intervalo = Math.max(1, Math.min(expiracao.toSeconds() / 4, 300));
+        limpeza.scheduleWithFixedDelay(this::expirarAbandonadas, intervalo, intervalo, TimeUnit.SECONDS);
+        // Na mesma thread: arquivos enviados (em partes ou não) que nunca foram citados
+        limpeza.scheduleWithFixedDelay(this::apagarNaoCitados, intervalo, intervalo, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        limpeza.shutdownNow();
+        sessoes.values().forEach(this::fecharCanal);
+    }
+
+    public UploadSessaoDTO iniciar(String dono, UploadInicioRequest request) {
+        if (request.getTamanho() == null || request.getTamanho() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o tamanho do arquivo.");
+        }
+        if (request.getTamanho() > tamanhoMaximo) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Arquivo maior que o limite de " + tamanhoMaximo + " bytes.");
+        }
+        long abertas = sessoes.values().stream().filter(sessao -> sessao.dono.equals(dono)).count();
+        if (abertas >= sessoesPorUsuario) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Muitos uploads em andamento. Conclua ou cancele um deles.");
+        }
+        int parte = request.getTamanhoParte() != null ? request.getTamanhoParte() : tamanhoParte;
+        parte = Math.max(tamanhoParteMinimo, Math.min(tamanhoParteMaximo, parte));
+
+        Sessao sessao;
+        try {
+            Path arquivo = fileStorageService.criarTemporario(PREFIXO_TEMPORARIO);
+            // Pré-aloca o tamanho final: as partes são gravadas direto na posição, em qualquer ordem
+            try (RandomAccessFile raf = new RandomAccessFile(arquivo.toFile(), "rw")) {
+                raf.setLength(request.getTamanho());
+            }
+            sessao = new Sessao(UUID.randomUUID().toString(), dono, request.getNome(), request.getTamanho(), parte, arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível iniciar o upload.", e);
+        }
+        sessoes.put(sessao.id, sessao);
+        log.debug("Upload em partes {} iniciado: {} bytes em {} partes", sessao.id, sessao.tamanho, sessao.totalPartes);
+        return paraDto(sessao);
+    }
+
+    // Grava uma parte lendo o corpo em blocos, sem carregá-la inteira em memória. Reenviar uma parte já
+    // recebida apenas a sobrescreve; se o checksum informado não confere, a parte continua pendente.
+    public String gravarParte(String dono, String id, int indice, InputStream corpo, String checksumInformado) throws IOException {
+        Sessao sessao = obter(dono, id);
+        if (indice < 0 || indice >= sessao.totalPartes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Parte " + indice + " fora do intervalo 0.." + (sessao.totalPartes - 1) + ".");
+        }
+        synchronized (sessao) {
+            if (sessao.concluida) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload já concluído.");
+            }
+            if (!sessao.emEscrita.add(indice)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "A parte " + indice + " já está sendo enviada.");
+            }
+            sessao.recebidas.clear(indice);
+        }
+        try {
+            long inicio = (long) indice * sessao.tamanhoParte;
+            long esperado = Math.min(sessao.tamanhoParte, sessao.tamanho - inicio);
+            String checksum = escrever(sessao.canal, corpo, inicio, esperado, indice);
+            if (checksumInformado != null && !checksumInformado.equalsIgnoreCase(checksum)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Checksum da parte " + indice + " não confere: recebido " + checksum + ".");
+            }
+            synchronized (sessao) {
+                sessao.recebidas.set(indice);
+                sessao.ultimoAcesso = System.currentTimeMillis();
+            }
+            return checksum;
+        } finally {
+            synchronized (sessao) {
+                sessao.emEscrita.remove(indice);
+            }
+        }
+    }
+
+    public UploadSessaoDTO consultar(String dono, String id) {
+        Sessao sessao = obter(dono, id);
+        synchronized (sessao) {
+            sessao.ultimoAcesso = System.currentTimeMillis();
+            return paraDto(sessao);
+        }
+    }
+
+    // Confere que todas as partes chegaram e entrega o arquivo montado ao armazenamento
+    public UploadSessaoDTO concluir(String dono, String id) {
+        Sessao sessao = obter(dono, id);
+        synchronized (sessao) {
+            if (!sessao.emEscrita.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Ainda há partes sendo enviadas.");
+            }
+            List<Integer> faltando = faltando(sessao);
+            if (!faltando.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Partes pendentes: " + faltando);
+            }
+            sessao.concluida = true;
+            sessoes.remove(id);
+        }
+        fecharCanal(sessao);
+        try {
+            UploadSessaoDTO dto = paraDto(sessao);
+            dto.setFilename(fileStorageService.store(sessao.arquivo, sessao.nome));
+            dto.setExpiraEm(null);
+            return dto;
+        } finally {
+            apagar(sessao);
+        }
+    }
+
+    public void cancelar(String dono, String id) {
+        Sessao sessao = obter(dono, id);
+        synchronized (sessao) {
+            sessao.concluida = true;
+            sessoes.remove(id);
+        }
+        fecharCanal(sessao);
+        apagar(sessao);
+    }
+
+    void expirarAbandonadas() {
+        long limite = System.currentTimeMillis() - expiracao.toMillis();
+        for (Sessao sessao : sessoes.values()) {
+            synchronized (sessao) {
+                if (sessao.ultimoAcesso >= limite || !sessao.emEscrita.isEmpty()) {
+                    continue;
+                }
+                sessao.concluida = true;
+                sessoes.remove(sessao.id);
+            }
+            fecharCanal(sessao);
+            apagar(sessao);
+            expiradas.increment();
+            log.debug("Upload em partes {} expirou com {}/{} partes", sessao.id, sessao.recebidas.cardinality(), sessao.totalPartes);
+        }
+    }
+
+    private void apagarNaoCitados() {
+        try {
+            fileStorageService.apagarNaoCitados();
+        } catch (RuntimeException e) {
+            // Uma falha (ex.: banco fora do ar) não pode cancelar o agendamento
+            log.warn("Falha ao apagar os arquivos não citados", e);
+        }
+    }
+
+    // Escrita posicional: partes diferentes podem ser gravadas ao mesmo tempo pelo mesmo canal
+    private String escrever(FileChannel canal, InputStream corpo, long inicio, long esperado, int indice) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] bloco = new byte[BUFFER_ESCRITA];
+        long gravado = 0;
+        int lidos;
+        while ((lidos = corpo.read(bloco)) != -1) {
+            if (gravado + lidos > esperado) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "A parte " + indice + " deve ter " + esperado + " bytes.");
+            }
+            digest.update(bloco, 0, lidos);
+            ByteBuffer buffer = ByteBuffer.wrap(bloco, 0, lidos);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer, inicio + gravado + buffer.position());
+            }
+            gravado += lidos;
+        }
+        if (gravado != esperado) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A parte " + indice + " deve ter " + esperado + " bytes, chegaram " + gravado + ".");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Sessão de outro usuário responde como inexistente
+    private Sessao obter(String dono, String id) {
+        Sessao sessao = sessoes.get(id);
+        if (sessao == null || !sessao.dono.equals(dono)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload não encontrado ou expirado.");
+        }
+        return sessao;
+    }
+
+    // No máximo 100 índices, para a resposta não crescer com arquivos de milhares de partes
+    private List<Integer> faltando(Sessao sessao) {
+        List<Integer> faltando = new ArrayList<>();
+        for (int i = sessao.recebidas.nextClearBit(0); i < sessao.totalPartes && faltando.size() < 100;
+             i = sessao.recebidas.nextClearBit(i + 1)) {
+            faltando.add(i);
+        }
+        return faltando;
+    }
+
+    private UploadSessaoDTO paraDto(Sessao sessao) {
+        UploadSessaoDTO dto = new UploadSessaoDTO();
+        dto.setId(sessao.id);
+        dto.setNome(sessao.nome);
+        dto.setTamanho(sessao.tamanho);
+        dto.setTamanhoParte(sessao.tamanhoParte);
+        dto.setTotalPartes(sessao.totalPartes);
+        dto.setPartesRecebidas(sessao.recebidas.stream().boxed().toList());
+        dto.setExpiraEm(LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(sessao.ultimoAcesso).plus(expiracao), ZoneId.systemDefault()));
+        return dto;
+    }
+
+    private void fecharCanal(Sessao sessao) {
+        try {
+            sessao.canal.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o upload {}", sessao.id, e);
+        }
+    }
+
+    private void apagar(Sessao sessao) {
+        try {
+            Files.deleteIfExists(sessao.arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o temporário do upload {}", sessao.id, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Estado mutável protegido pelo monitor da própria sessão (exceto o canal, que aceita escritas concorrentes)
+    private static final class Sessao {
+        final String id;
+        final String dono;
+        final String nome;
+        final long tamanho;
+        final int tamanhoParte;
+        final int totalPartes;
+        final Path arquivo;
+        final FileChannel canal;
+        final BitSet recebidas;
+        final Set<Integer> emEscrita = new HashSet<>();
+        long ultimoAcesso = System.currentTimeMillis();
+        boolean concluida;
+
+        Sessao(String id, String dono, String nome, long tamanho, int tamanhoParte, Path arquivo) throws IOException {
+            this.id = id;
+            this.dono = dono;
+            this.nome = nome;
+            this.tamanho = tamanho;
+            this.tamanhoParte = tamanhoParte;
+            this.totalPartes = (int) ((tamanho + tamanhoParte - 1) / tamanhoParte);
+            this.arquivo = arquivo;
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.WRITE);
+            this.recebidas = new BitSet(totalPartes);
+        }
+    }
+}
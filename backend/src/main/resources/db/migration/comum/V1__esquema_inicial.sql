@@ -0,0 +1,56 @@
+-- Schema original da aplicacao, exatamente como o ddl-auto=update do Hibernate o criava antes das migracoes
+-- (ids em colunas IDENTITY, sem indices alem das chaves). Roda no PostgreSQL e no H2.
+-- Bancos que ja tinham esse schema pulam esta versao (spring.flyway.baseline-on-migrate, versao de base 1)
+-- e recebem o resto a partir da V2
+
+CREATE TABLE usuarios (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome_completo VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    foto_url VARCHAR(255),
+    curso VARCHAR(255),
+    turno VARCHAR(255),
+    role VARCHAR(255) NOT NULL,
+    password_reset_token VARCHAR(255),
+    password_reset_token_expiry TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE artefato (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    titulo TEXT,
+    descricao TEXT,
+    autor TEXT,
+    curso VARCHAR(255),
+    campus VARCHAR(255),
+    categoria VARCHAR(255),
+    semestre INTEGER,
+    data_criacao DATE,
+    url_imagem_principal VARCHAR(255),
+    lista_imagens TEXT,
+    lista_documentos TEXT,
+    video_youtube_url VARCHAR(255),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDENTE', 'APROVADO', 'REJEITADO')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE comentario (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    artefato_id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    funcao_empresa VARCHAR(255),
+    texto TEXT NOT NULL,
+    avaliacao_solucao INTEGER,
+    avaliacao_video INTEGER,
+    avaliacao_impacto INTEGER,
+    data_criacao TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_comentario_artefato FOREIGN KEY (artefato_id) REFERENCES artefato (id)
+);
+
+CREATE TABLE test_entidade (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome VARCHAR(255),
+    PRIMARY KEY (id)
+);
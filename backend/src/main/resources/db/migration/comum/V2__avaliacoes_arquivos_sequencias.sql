@@ -0,0 +1,44 @@
+-- Tabelas, sequencias e indices que as entidades ganharam depois do schema original (V1); roda no PostgreSQL e no H2
+-- IF NOT EXISTS: um banco que ja passou por um ddl-auto=update com essas entidades pode ter parte disto
+
+-- Ids de artefato e comentario em blocos de 50 (allocationSize das entidades): INSERT em lote na importacao
+-- e na ingestao de comentarios
+CREATE SEQUENCE IF NOT EXISTS artefato_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comentario_seq START WITH 1 INCREMENT BY 50;
+
+-- Listagem paginada: comentarios de um artefato, mais recentes primeiro
+CREATE INDEX IF NOT EXISTS idx_comentario_artefato_data ON comentario (artefato_id, data_criacao DESC, id DESC);
+
+-- Totais das avaliacoes por artefato (AvaliacaoAgregada)
+CREATE TABLE IF NOT EXISTS artefato_avaliacao (
+    artefato_id BIGINT NOT NULL,
+    total_comentarios BIGINT NOT NULL,
+    solucao_total BIGINT,
+    solucao_soma BIGINT,
+    solucao_media FLOAT(53),
+    solucao_histograma BIGINT ARRAY,
+    video_total BIGINT,
+    video_soma BIGINT,
+    video_media FLOAT(53),
+    video_histograma BIGINT ARRAY,
+    impacto_total BIGINT,
+    impacto_soma BIGINT,
+    impacto_media FLOAT(53),
+    impacto_histograma BIGINT ARRAY,
+    PRIMARY KEY (artefato_id)
+);
+
+-- Rankings por dimensao de avaliacao
+CREATE INDEX IF NOT EXISTS idx_avaliacao_media_solucao ON artefato_avaliacao (solucao_media);
+CREATE INDEX IF NOT EXISTS idx_avaliacao_media_video ON artefato_avaliacao (video_media);
+CREATE INDEX IF NOT EXISTS idx_avaliacao_media_impacto ON artefato_avaliacao (impacto_media);
+
+-- Armazenamento enderecado por conteudo (ArquivoArmazenado)
+CREATE TABLE IF NOT EXISTS arquivo_armazenado (
+    sha256 VARCHAR(64) NOT NULL,
+    extensao VARCHAR(16) NOT NULL,
+    tamanho BIGINT NOT NULL,
+    referencias BIGINT NOT NULL,
+    data_criacao TIMESTAMP(6),
+    PRIMARY KEY (sha256)
+);
@@ -0,0 +1,9 @@
+-- Indices das consultas quentes no H2 (testes e treino do AppCDS), o mais proximo possivel de
+-- db/migration/postgresql: o H2 nao tem indice parcial, de expressao nem de trigramas
+
+CREATE INDEX IF NOT EXISTS idx_artefato_status_data ON artefato (status, data_criacao DESC, id DESC);
+
+-- No PostgreSQL e parcial (status = 'APROVADO'); aqui o status entra como primeira coluna
+CREATE INDEX IF NOT EXISTS idx_artefato_filtros ON artefato (status, curso, campus, categoria, semestre, data_criacao DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_usuarios_role ON usuarios (role);
@@ -0,0 +1,4 @@
+-- Mesmo que db/migration/postgresql/V4: ids de artefato passam da IDENTITY para artefato_seq, que comeca em
+-- MAX(id) + 50 (o Hibernate usa os ids N-49..N de cada nextval N)
+ALTER TABLE artefato ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE artefato_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM artefato);
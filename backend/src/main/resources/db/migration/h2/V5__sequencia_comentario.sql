@@ -0,0 +1,4 @@
+-- Mesmo que db/migration/postgresql/V5: ids de comentario passam da IDENTITY para comentario_seq, que comeca em
+-- MAX(id) + 50
+ALTER TABLE comentario ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE comentario_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM comentario);
@@ -0,0 +1,19 @@
+-- Indices das consultas quentes (a versao do H2 fica em db/migration/h2, sem indice parcial nem trigramas)
+-- IF NOT EXISTS: bancos vindos do ddl-auto=update podem ja ter algum deles
+
+-- findByStatus (admin, montagem das facetas) e a listagem por status na ordem da paginacao por chave
+-- (searchByStatusAposCursor: ORDER BY data_criacao DESC, id DESC LIMIT)
+CREATE INDEX IF NOT EXISTS idx_artefato_status_data ON artefato (status, data_criacao DESC, id DESC);
+
+-- Filtros do catalogo publico (searchByStatus*, sempre com status APROVADO): parcial, so com os aprovados
+CREATE INDEX IF NOT EXISTS idx_artefato_filtros ON artefato (curso, campus, categoria, semestre, data_criacao DESC, id DESC)
+    WHERE status = 'APROVADO';
+
+-- findAllByRole (listagem de alunos)
+CREATE INDEX IF NOT EXISTS idx_usuarios_role ON usuarios (role);
+
+-- Busca sem diferenciar maiusculas: LOWER(titulo) LIKE '%texto%' (e autor) nao usa B-tree por causa do % inicial;
+-- o GIN de trigramas sobre a mesma expressao atende o LIKE com o padrao em qualquer posicao
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_artefato_titulo_trgm ON artefato USING gin (LOWER(titulo) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_artefato_autor_trgm ON artefato USING gin (LOWER(autor) gin_trgm_ops);
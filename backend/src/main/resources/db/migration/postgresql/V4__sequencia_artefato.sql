@@ -0,0 +1,5 @@
+-- Os ids de artefato vinham da coluna IDENTITY; agora vem de artefato_seq (allocationSize 50, otimizador pooled do
+-- Hibernate: cada nextval N libera os ids N-49..N). A sequencia comeca em MAX(id) + 50 para que o primeiro
+-- bloco fique inteiro depois dos ids ja gravados, na criacao avulsa e na importacao em lote
+ALTER TABLE artefato ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('artefato_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM artefato), false);
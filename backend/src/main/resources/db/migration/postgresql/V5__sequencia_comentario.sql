@@ -0,0 +1,4 @@
+-- Como a V4 para artefato: ids de comentario passam da IDENTITY para comentario_seq, usada pelo save() e pela
+-- ingestao write-behind (ComentarioIngestaoService). A sequencia comeca em MAX(id) + 50
+ALTER TABLE comentario ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('comentario_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM comentario), false);
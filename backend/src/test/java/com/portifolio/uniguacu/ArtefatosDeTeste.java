@@ -0,0 +1,59 @@
+package com.portifolio.uniguacu;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.repository.AvaliacaoAgregadaRepository;
+import com.portifolio.uniguacu.repository.ComentarioRepository;
+import com.portifolio.uniguacu.service.AvaliacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Artefatos para os testes que sobem o contexto: todos dividem o mesmo H2, então quem cria apaga no
+// @AfterEach. Está em src/test, no pacote da aplicação: o component scan o registra só nos testes.
+@Component
+public class ArtefatosDeTeste {
+
+	public static final LocalDate DATA_CRIACAO = LocalDate.of(2024, 3, 1);
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private AvaliacaoAgregadaRepository avaliacaoAgregadaRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private AvaliacaoService avaliacaoService;
+
+	// Sem gravar, para o teste completar os campos ou passar a um serviço
+	public static Artefato novo(String titulo, StatusProjeto status) {
+		Artefato artefato = new Artefato();
+		artefato.setTitulo(titulo);
+		artefato.setDataCriacao(DATA_CRIACAO);
+		artefato.setStatus(status);
+		return artefato;
+	}
+
+	public Artefato criar(String titulo, StatusProjeto status) {
+		return criar(novo(titulo, status));
+	}
+
+	// Grava com o agregado de avaliações vazio, como o ArtefatoService
+	public Artefato criar(Artefato artefato) {
+		Artefato salvo = artefatoRepository.save(artefato);
+		avaliacaoService.criar(salvo.getId());
+		return salvo;
+	}
+
+	// Comentários e agregados antes dos artefatos, por causa das chaves estrangeiras
+	public void limpar() {
+		comentarioRepository.deleteAll();
+		avaliacaoAgregadaRepository.deleteAll();
+		artefatoRepository.deleteAll();
+	}
+}
@@ -0,0 +1,260 @@
+package com.portifolio.uniguacu.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portifolio.uniguacu.config.DadosSinteticos;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Teste de carga ponta a ponta: sobe a aplicação numa porta real com o H2 populado pelo perfil dados-sinteticos
+// e mede, por cenário, p50/p95/p99 e a vazão de uma mistura de requisições (catálogo, detalhe com popularidade
+// enviesada, comentário, login e download). O resultado vai para target/carga/resultado.json e é comparado
+// com a linha de base: falha quando p95/p99 ou a vazão pioram além da tolerância.
+// Fica fora do mvn test; roda com: mvn -Pcarga test [-Dcarga.concorrencia=64 -Dcarga.duracao=PT60S]
+// A linha de base não é versionada: os números só valem na máquina que os mediu. Grave uma antes, na máquina
+// que vai fazer a comparação, com -Dcarga.gravar-linha-de-base=true; se os processadores ou a concorrência
+// mudarem, o teste recusa a comparação e pede para regravar. Fica em target/carga/linha-de-base.properties
+// (some no mvn clean); para guardá-la em outro lugar: -Dcarga.linha-de-base=<arquivo>
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+		"dados-sinteticos.usuarios=${carga.usuarios:200}",
+		"dados-sinteticos.artefatos=${carga.artefatos:2000}",
+		"dados-sinteticos.comentarios=${carga.comentarios:20000}",
+		// Custo do BCrypt é parâmetro de implantação; com o de produção o login mede só o hash e satura a fila
+		// de admissão (429) em máquinas com poucos núcleos
+		"seguranca.bcrypt.forca=${carga.bcrypt-forca:4}",
+		"logging.level.com.portifolio.uniguacu=WARN",
+		"logging.level.com.portifolio.uniguacu.carga=INFO"
+})
+@ActiveProfiles({"test", "dados-sinteticos"})
+class CargaHttpTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CargaHttpTest.class);
+
+	private static final Path RESULTADO = Path.of("target/carga/resultado.json");
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${carga.concorrencia:32}")
+	private int concorrencia;
+
+	@Value("${carga.aquecimento:PT5S}")
+	private Duration aquecimento;
+
+	@Value("${carga.duracao:PT20S}")
+	private Duration duracao;
+
+	@Value("${carga.usuarios:200}")
+	private int usuarios;
+
+	@Value("${dados-sinteticos.senha}")
+	private String senha;
+
+	// Limites em relação à linha de base: latência até 1,5x (mais uma folga absoluta para as medidas de
+	// poucos milissegundos) e vazão de pelo menos 2/3
+	@Value("${carga.tolerancia-latencia:1.5}")
+	private double toleranciaLatencia;
+
+	@Value("${carga.folga-ms:5}")
+	private double folgaMs;
+
+	@Value("${carga.tolerancia-vazao:0.67}")
+	private double toleranciaVazao;
+
+	@Value("${carga.erros-maximos:0.01}")
+	private double errosMaximos;
+
+	@Value("${carga.gravar-linha-de-base:false}")
+	private boolean gravarLinhaDeBase;
+
+	@Value("${carga.linha-de-base:target/carga/linha-de-base.properties}")
+	private Path arquivoLinhaDeBase;
+
+	@Test
+	void latenciaEVazaoDentroDaLinhaDeBase() throws Exception {
+		List<Artefato> aprovados = artefatoRepository.findByStatus(StatusProjeto.APROVADO);
+		assertThat(aprovados).isNotEmpty();
+
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		Map<String, GeradorCarga.Resultado> resultados = new GeradorCarga(client, cenarios(aprovados))
+				.executar(concorrencia, aquecimento, duracao, DadosSinteticos.SEMENTE);
+
+		gravarResultado(resultados);
+		resultados.values().forEach(r -> log.info(String.format(Locale.ROOT,
+				"%-10s %7d req %5d erros %5d 429 %8.1f req/s  p50 %7.2f  p95 %7.2f  p99 %7.2f ms",
+				r.cenario(), r.requisicoes(), r.erros(), r.rejeitadas(), r.vazaoRps(), r.p50Ms(), r.p95Ms(), r.p99Ms())));
+
+		for (GeradorCarga.Resultado resultado : resultados.values()) {
+			assertThat(resultado.requisicoes()).as("requisições de %s", resultado.cenario()).isPositive();
+			assertThat((double) resultado.erros() / resultado.requisicoes())
+					.as("taxa de erros de %s", resultado.cenario()).isLessThanOrEqualTo(errosMaximos);
+		}
+		if (gravarLinhaDeBase) {
+			gravarLinhaDeBase(resultados);
+			return;
+		}
+		assertThat(arquivoLinhaDeBase).as("linha de base (gere com -Dcarga.gravar-linha-de-base=true)").exists();
+		Properties linhaDeBase = lerLinhaDeBase();
+		assertThat(linhaDeBase.getProperty("processadores"))
+				.as("processadores da linha de base (regrave com -Dcarga.gravar-linha-de-base=true)")
+				.isEqualTo(String.valueOf(Runtime.getRuntime().availableProcessors()));
+		assertThat(linhaDeBase.getProperty("concorrencia"))
+				.as("concorrência da linha de base (regrave com -Dcarga.gravar-linha-de-base=true)")
+				.isEqualTo(String.valueOf(concorrencia));
+		assertThat(regressoes(resultados, linhaDeBase)).isEmpty();
+	}
+
+	// Pesos aproximam o tráfego do portfólio: a maior parte é leitura do catálogo e de detalhes
+	private List<GeradorCarga.Cenario> cenarios(List<Artefato> aprovados) {
+		// Poucos artefatos concentram a maioria das visitas (mesma distribuição dos comentários sintéticos)
+		double[] popularidade = DadosSinteticos.popularidade(aprovados.size(), 1.0);
+		List<String> imagens = aprovados.stream().map(Artefato::getUrlImagemPrincipal).distinct().toList();
+		String base = "http://localhost:" + porta;
+
+		return List.of(
+				new GeradorCarga.Cenario("catalogo", 40, random -> {
+					String uri = base + "/api/artefatos?limite=20";
+					if (random.nextInt(10) < 3) {
+						Artefato filtro = aprovados.get(random.nextInt(aprovados.size()));
+						uri += "&curso=" + URLEncoder.encode(filtro.getCurso(), StandardCharsets.UTF_8);
+					}
+					return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+				}, Set.of(200)),
+				new GeradorCarga.Cenario("detalhe", 35, random -> {
+					Artefato artefato = aprovados.get(DadosSinteticos.sortearPopular(random, popularidade));
+					return HttpRequest.newBuilder(URI.create(base + "/api/artefatos/" + artefato.getId())).GET().build();
+				}, Set.of(200)),
+				new GeradorCarga.Cenario("comentario", 10, random -> {
+					Artefato artefato = aprovados.get(DadosSinteticos.sortearPopular(random, popularidade));
+					String corpo = """
+							{"nome":"Visitante %d","texto":"Comentário de carga","avaliacaoSolucao":%d,"avaliacaoVideo":%d,"avaliacaoImpacto":%d}"""
+							.formatted(random.nextInt(1000), 1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5));
+					return HttpRequest.newBuilder(URI.create(base + "/api/artefatos/" + artefato.getId() + "/comentarios"))
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofString(corpo))
+							.build();
+				}, Set.of(201, 202)),
+				new GeradorCarga.Cenario("login", 5, random -> {
+					String corpo = """
+							{"email":"%s","password":"%s"}""".formatted(DadosSinteticos.email(1 + random.nextInt(usuarios)), senha);
+					return HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofString(corpo))
+							.build();
+				}, Set.of(200)),
+				new GeradorCarga.Cenario("download", 10, random -> {
+					String imagem = imagens.get(random.nextInt(imagens.size()));
+					return HttpRequest.newBuilder(URI.create(base + "/api/files/" + imagem)).GET().build();
+				}, Set.of(200)));
+	}
+
+	private List<String> regressoes(Map<String, GeradorCarga.Resultado> resultados, Properties linhaDeBase) {
+		List<String> regressoes = new ArrayList<>();
+		for (GeradorCarga.Resultado resultado : resultados.values()) {
+			String cenario = resultado.cenario();
+			verificarLatencia(regressoes, cenario + ".p95-ms", resultado.p95Ms(), linhaDeBase);
+			verificarLatencia(regressoes, cenario + ".p99-ms", resultado.p99Ms(), linhaDeBase);
+		}
+		String chave = "total.vazao-rps";
+		if (linhaDeBase.containsKey(chave)) {
+			double referencia = Double.parseDouble(linhaDeBase.getProperty(chave));
+			double medida = resultados.get("total").vazaoRps();
+			if (medida < referencia * toleranciaVazao) {
+				regressoes.add(String.format("%s: %.1f < %.1f (linha de base %.1f)", chave, medida,
+						referencia * toleranciaVazao, referencia));
+			}
+		}
+		return regressoes;
+	}
+
+	private void verificarLatencia(List<String> regressoes, String chave, double medida, Properties linhaDeBase) {
+		if (!linhaDeBase.containsKey(chave)) {
+			return;
+		}
+		double referencia = Double.parseDouble(linhaDeBase.getProperty(chave));
+		double limite = referencia * toleranciaLatencia + folgaMs;
+		if (medida > limite) {
+			regressoes.add(String.format("%s: %.2f > %.2f (linha de base %.2f)", chave, medida, limite, referencia));
+		}
+	}
+
+	private Properties lerLinhaDeBase() throws IOException {
+		Properties linhaDeBase = new Properties();
+		try (Reader reader = Files.newBufferedReader(arquivoLinhaDeBase)) {
+			linhaDeBase.load(reader);
+		}
+		return linhaDeBase;
+	}
+
+	private void gravarLinhaDeBase(Map<String, GeradorCarga.Resultado> resultados) throws IOException {
+		Files.createDirectories(arquivoLinhaDeBase.toAbsolutePath().getParent());
+		try (Writer writer = Files.newBufferedWriter(arquivoLinhaDeBase)) {
+			writer.write("# Linha de base do CargaHttpTest (latencias em ms, vazao em req/s)\n");
+			writer.write(String.format(Locale.ROOT, "# duracao=%s java=%s%n", duracao, System.getProperty("java.version")));
+			writer.write("# Valores dependem da maquina: regrave na mesma maquina que faz a comparacao\n");
+			writer.write(String.format(Locale.ROOT, "processadores=%d%n", Runtime.getRuntime().availableProcessors()));
+			writer.write(String.format(Locale.ROOT, "concorrencia=%d%n", concorrencia));
+			for (GeradorCarga.Resultado resultado : resultados.values()) {
+				writer.write(String.format(Locale.ROOT, "%s.p95-ms=%.2f%n", resultado.cenario(), resultado.p95Ms()));
+				writer.write(String.format(Locale.ROOT, "%s.p99-ms=%.2f%n", resultado.cenario(), resultado.p99Ms()));
+			}
+			writer.write(String.format(Locale.ROOT, "total.vazao-rps=%.1f%n", resultados.get("total").vazaoRps()));
+		}
+	}
+
+	private void gravarResultado(Map<String, GeradorCarga.Resultado> resultados) throws IOException {
+		Map<String, Object> saida = new LinkedHashMap<>();
+		saida.put("concorrencia", concorrencia);
+		saida.put("aquecimento", aquecimento.toString());
+		saida.put("duracao", duracao.toString());
+		saida.put("processadores", Runtime.getRuntime().availableProcessors());
+		saida.put("java", System.getProperty("java.version"));
+		saida.put("cenarios", resultados.values());
+		Files.createDirectories(RESULTADO.getParent());
+		objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(RESULTADO.toFile(), saida);
+	}
+}
@@ -0,0 +1,159 @@
+package com.portifolio.uniguacu.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// Carga em malha fechada: 'concorrencia' clientes (threads virtuais) repetem requisições sorteadas pelo peso
+// de cada cenário, sem pausa, durante o aquecimento (descartado) e a medição. Cada cliente guarda as próprias
+// latências; no fim elas são juntadas por cenário para os percentis e a vazão.
+class GeradorCarga {
+
+	record Cenario(String nome, int peso, Function<Random, HttpRequest> requisicao, Set<Integer> statusEsperados) {
+	}
+
+	// rejeitadas: respostas 429 (controle de admissão), contadas à parte e também como erro quando o cenário
+	// não as espera
+	record Resultado(String cenario, int requisicoes, int erros, int rejeitadas, double vazaoRps,
+			double p50Ms, double p95Ms, double p99Ms, double maximoMs) {
+	}
+
+	private final HttpClient client;
+	private final List<Cenario> cenarios;
+	private final int pesoTotal;
+
+	GeradorCarga(HttpClient client, List<Cenario> cenarios) {
+		this.client = client;
+		this.cenarios = cenarios;
+		this.pesoTotal = cenarios.stream().mapToInt(Cenario::peso).sum();
+	}
+
+	// Resultados por cenário, na ordem recebida, seguidos do total ("total")
+	Map<String, Resultado> executar(int concorrencia, Duration aquecimento, Duration medicao, long semente)
+			throws InterruptedException {
+		rodada(concorrencia, aquecimento, semente - 1);
+		long inicio = System.nanoTime();
+		List<Cliente> clientes = rodada(concorrencia, medicao, semente);
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+
+		Map<String, Resultado> resultados = new LinkedHashMap<>();
+		List<Long> todas = new ArrayList<>();
+		int errosTotal = 0;
+		int rejeitadasTotal = 0;
+		for (int c = 0; c < cenarios.size(); c++) {
+			List<Long> latencias = new ArrayList<>();
+			int erros = 0;
+			int rejeitadas = 0;
+			for (Cliente cliente : clientes) {
+				latencias.addAll(cliente.latencias.get(c));
+				erros += cliente.erros[c];
+				rejeitadas += cliente.rejeitadas[c];
+			}
+			todas.addAll(latencias);
+			errosTotal += erros;
+			rejeitadasTotal += rejeitadas;
+			resultados.put(cenarios.get(c).nome(),
+					resumir(cenarios.get(c).nome(), latencias, erros, rejeitadas, segundos));
+		}
+		resultados.put("total", resumir("total", todas, errosTotal, rejeitadasTotal, segundos));
+		return resultados;
+	}
+
+	private List<Cliente> rodada(int concorrencia, Duration duracao, long semente) throws InterruptedException {
+		AtomicBoolean parar = new AtomicBoolean();
+		List<Cliente> clientes = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < concorrencia; i++) {
+			Cliente cliente = new Cliente(new Random(semente * 1000 + i), parar);
+			clientes.add(cliente);
+			threads.add(Thread.ofVirtual().name("carga-" + i).start(cliente));
+		}
+		Thread.sleep(duracao.toMillis());
+		parar.set(true);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return clientes;
+	}
+
+	private static Resultado resumir(String nome, List<Long> latencias, int erros, int rejeitadas, double segundos) {
+		long[] ordenadas = latencias.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(ordenadas);
+		return new Resultado(nome, ordenadas.length, erros, rejeitadas, ordenadas.length / segundos,
+				percentil(ordenadas, 0.50), percentil(ordenadas, 0.95), percentil(ordenadas, 0.99),
+				ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6);
+	}
+
+	private static double percentil(long[] ordenadas, double p) {
+		if (ordenadas.length == 0) {
+			return 0;
+		}
+		int posicao = (int) Math.ceil(p * ordenadas.length) - 1;
+		return ordenadas[Math.max(0, posicao)] / 1e6;
+	}
+
+	private class Cliente implements Runnable {
+
+		final Random random;
+		final AtomicBoolean parar;
+		final List<List<Long>> latencias = new ArrayList<>();
+		final int[] erros = new int[cenarios.size()];
+		final int[] rejeitadas = new int[cenarios.size()];
+
+		Cliente(Random random, AtomicBoolean parar) {
+			this.random = random;
+			this.parar = parar;
+			for (int i = 0; i < cenarios.size(); i++) {
+				latencias.add(new ArrayList<>());
+			}
+		}
+
+		@Override
+		public void run() {
+			while (!parar.get()) {
+				int indice = sortear();
+				Cenario cenario = cenarios.get(indice);
+				HttpRequest requisicao = cenario.requisicao().apply(random);
+				long inicio = System.nanoTime();
+				try {
+					HttpResponse<byte[]> resposta = client.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+					latencias.get(indice).add(System.nanoTime() - inicio);
+					if (resposta.statusCode() == 429) {
+						rejeitadas[indice]++;
+					}
+					if (!cenario.statusEsperados().contains(resposta.statusCode())) {
+						erros[indice]++;
+					}
+				} catch (IOException e) {
+					latencias.get(indice).add(System.nanoTime() - inicio);
+					erros[indice]++;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+
+		private int sortear() {
+			int alvo = random.nextInt(pesoTotal);
+			for (int i = 0; i < cenarios.size(); i++) {
+				alvo -= cenarios.get(i).peso();
+				if (alvo < 0) {
+					return i;
+				}
+			}
+			return cenarios.size() - 1;
+		}
+	}
+}
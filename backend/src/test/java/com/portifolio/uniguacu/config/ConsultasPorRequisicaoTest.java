@@ -0,0 +1,64 @@
+package com.portifolio.uniguacu.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsultasPorRequisicaoTest {
+
+	private static final String POR_ID = "select c1_0.id,c1_0.nome from comentario c1_0 where c1_0.artefato_id=?";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ConsultasPorRequisicao consultas = new ConsultasPorRequisicao(5, meterRegistry);
+
+	@Test
+	void contaOsComandosDaRequisicaoPeloPadraoDaUri() throws Exception {
+		executar(() -> {
+			consultas.inspect("select a1_0.id from artefato a1_0 where a1_0.status=?");
+			consultas.inspect(POR_ID);
+		});
+
+		DistributionSummary porRequisicao = meterRegistry.get("hibernate.consultas.requisicao")
+				.tag("method", "GET").tag("uri", "/api/artefatos/{id}").summary();
+		assertThat(porRequisicao.count()).isEqualTo(1);
+		assertThat(porRequisicao.totalAmount()).isEqualTo(2);
+		assertThat(meterRegistry.find("hibernate.consultas.repetidas").counter()).isNull();
+	}
+
+	@Test
+	void mesmoSqlRepetidoAcimaDoLimiarContaComoNMaisUmUmaVezPorRequisicao() throws Exception {
+		executar(() -> {
+			consultas.inspect("select a1_0.id from artefato a1_0 where a1_0.status=?");
+			for (int i = 0; i < 8; i++) {
+				consultas.inspect(POR_ID);
+				consultas.inspect("select u1_0.id from usuario u1_0 where u1_0.id=?");
+			}
+		});
+
+		Counter repetidas = meterRegistry.get("hibernate.consultas.repetidas").tag("uri", "/api/artefatos/{id}").counter();
+		assertThat(repetidas.count()).isEqualTo(1);
+	}
+
+	@Test
+	void comandosForaDeUmaRequisicaoNaoSaoContados() throws Exception {
+		consultas.inspect(POR_ID);
+		executar(() -> {
+		});
+
+		assertThat(meterRegistry.get("hibernate.consultas.requisicao").summary().totalAmount()).isZero();
+	}
+
+	private void executar(Runnable handler) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/artefatos/7");
+		consultas.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			handler.run();
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/artefatos/{id}");
+		});
+	}
+}
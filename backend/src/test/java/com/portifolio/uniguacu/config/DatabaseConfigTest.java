@@ -0,0 +1,97 @@
+package com.portifolio.uniguacu.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dois bancos H2 em memória fazem o papel de primário e réplica
+class DatabaseConfigTest {
+
+	private static final String PRIMARIO = "jdbc:h2:mem:roteamento_primario;DB_CLOSE_DELAY=-1";
+	private static final String REPLICA = "jdbc:h2:mem:roteamento_replica;DB_CLOSE_DELAY=-1";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private DataSource dataSource;
+
+	@AfterEach
+	void fechar() throws Exception {
+		((AutoCloseable) dataSource).close();
+	}
+
+	@Test
+	void soLeituraMarcadaVaiParaAReplicaEOrestoParaOPrimario() {
+		dataSource = criar(List.of(REPLICA));
+		marcar(PRIMARIO, "primario");
+		marcar(REPLICA, "replica");
+
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		TransactionTemplate leitura = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		leitura.setReadOnly(true);
+
+		// O que o LeituraReplicaTransactionManager faz para @LeituraReplica
+		String marcada = leitura.execute(status -> {
+			DatabaseConfig.RoteamentoDataSource.marcarLeituraReplica();
+			try {
+				return origem(jdbc);
+			} finally {
+				DatabaseConfig.RoteamentoDataSource.desmarcarLeituraReplica();
+			}
+		});
+		String lida = leitura.execute(status -> origem(jdbc));
+		String escrita = transacao.execute(status -> origem(jdbc));
+		assertThat(marcada).isEqualTo("replica");
+		assertThat(lida).isEqualTo("primario");
+		assertThat(escrita).isEqualTo("primario");
+		assertThat(origem(jdbc)).isEqualTo("primario");
+		// Pools com métricas próprias
+		assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "primario").gauge()).isNotNull();
+		assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "replica-1").gauge().value()).isEqualTo(3);
+	}
+
+	@Test
+	void semReplicaTudoVaiParaOPrimario() {
+		dataSource = criar(List.of());
+		marcar(PRIMARIO, "primario");
+
+		TransactionTemplate leitura = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		leitura.setReadOnly(true);
+		String lida = leitura.execute(status -> origem(new JdbcTemplate(dataSource)));
+		assertThat(lida).isEqualTo("primario");
+	}
+
+	private DataSource criar(List<String> replicas) {
+		BancoProperties banco = new BancoProperties();
+		banco.setReplicas(replicas);
+		banco.getPool().setTamanhoMaximo(2);
+		banco.getPoolReplica().setTamanhoMaximo(3);
+		DatabaseConfig config = new DatabaseConfig();
+		ReflectionTestUtils.setField(config, "databaseUrl", "");
+		ReflectionTestUtils.setField(config, "springDatasourceUrl", PRIMARIO);
+		ReflectionTestUtils.setField(config, "springDatasourceUsername", "sa");
+		ReflectionTestUtils.setField(config, "springDatasourcePassword", "senha");
+		return config.dataSource(banco, meterRegistry);
+	}
+
+	// Tabela com o nome de cada banco, criada direto na URL (sem passar pelo roteamento)
+	private void marcar(String url, String nome) {
+		JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", "senha"));
+		jdbc.execute("CREATE TABLE IF NOT EXISTS origem (nome VARCHAR(20))");
+		jdbc.execute("DELETE FROM origem");
+		jdbc.update("INSERT INTO origem VALUES (?)", nome);
+	}
+
+	private String origem(JdbcTemplate jdbc) {
+		return jdbc.queryForObject("SELECT nome FROM origem", String.class);
+	}
+}
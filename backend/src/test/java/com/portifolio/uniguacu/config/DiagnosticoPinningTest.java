@@ -0,0 +1,69 @@
+package com.portifolio.uniguacu.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiagnosticoPinningTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DiagnosticoPinning diagnostico = new DiagnosticoPinning(Duration.ofMillis(10), meterRegistry);
+	private final Object monitor = new Object();
+
+	@AfterEach
+	void encerrar() {
+		diagnostico.encerrar();
+	}
+
+	@Test
+	void bloqueioDentroDeSynchronizedEmThreadVirtualViraMetricaComAOrigem() throws InterruptedException {
+		diagnostico.iniciar();
+
+		// O stream do JFR começa de forma assíncrona: repete o bloqueio até o primeiro evento chegar
+		long limite = System.currentTimeMillis() + 20_000;
+		while (timer() == null && System.currentTimeMillis() < limite) {
+			Thread.ofVirtual().start(this::dormirSegurandoMonitor).join();
+			Thread.sleep(100);
+		}
+
+		assertThat(timer()).isNotNull();
+		assertThat(timer().count()).isPositive();
+		assertThat(timer().totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+	}
+
+	@Test
+	void bloqueioForaDeSynchronizedNaoConta() throws InterruptedException {
+		diagnostico.iniciar();
+
+		for (int i = 0; i < 20; i++) {
+			Thread.ofVirtual().start(() -> dormir(30)).join();
+		}
+		Thread.sleep(1500);
+
+		assertThat(meterRegistry.find("threads.virtuais.pinning").timers()).isEmpty();
+	}
+
+	private Timer timer() {
+		return meterRegistry.find("threads.virtuais.pinning").tag("origem", getClass().getName()).timer();
+	}
+
+	private void dormirSegurandoMonitor() {
+		synchronized (monitor) {
+			dormir(50);
+		}
+	}
+
+	private static void dormir(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
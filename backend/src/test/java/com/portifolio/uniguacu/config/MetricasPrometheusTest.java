@@ -0,0 +1,52 @@
+package com.portifolio.uniguacu.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "metricas.prometheus.token=token-de-teste")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasPrometheusTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void coletaExigeOTokenConfigurado() throws Exception {
+		assertThat(mvc.perform(get("/actuator/prometheus")).andReturn().getResponse().getStatus()).isEqualTo(403);
+		assertThat(mvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer outro-token"))
+				.andReturn().getResponse().getStatus()).isEqualTo(403);
+		assertThat(mvc.perform(get("/actuator/metrics").header("Authorization", "Bearer token-de-teste"))
+				.andReturn().getResponse().getStatus()).isEqualTo(403);
+	}
+
+	@Test
+	void expoeLatenciasConsultasCachesEPoolNoFormatoPrometheus() throws Exception {
+		mvc.perform(get("/api/artefatos"));
+		mvc.perform(get("/api/artefatos/1"));
+
+		String coleta = mvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer token-de-teste"))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(coleta)
+				.contains("http_server_requests_seconds_bucket{")
+				.contains("uri=\"/api/artefatos/{id}\"")
+				.contains("spring_data_repository_invocations_seconds_bucket{")
+				.contains("hibernate_consultas_requisicao_count{")
+				.contains("hibernate_query_executions_total")
+				.contains("seguranca_jwt_filtro_seconds_count{")
+				.contains("cache_gets_total{")
+				.contains("cache=\"seguranca.jwt.verificados\"")
+				.contains("hikaricp_connections_max{")
+				.contains("logging_async_fila{appender=\"ASYNC_CONSOLE\"");
+	}
+}
@@ -0,0 +1,43 @@
+package com.portifolio.uniguacu.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistroRequisicoesTest {
+
+	private final RegistroRequisicoes registro = new RegistroRequisicoes(0.0, Duration.ofSeconds(1));
+
+	@Test
+	void geraIdDeCorrelacaoDisponivelNoMdcDuranteARequisicao() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		String noMdc = executar(new MockHttpServletRequest("GET", "/api/artefatos"), response);
+
+		assertThat(noMdc).matches("[0-9a-f]{16}");
+		assertThat(response.getHeader(RegistroRequisicoes.CABECALHO)).isEqualTo(noMdc);
+		assertThat(MDC.get(RegistroRequisicoes.MDC_CORRELACAO)).isNull();
+	}
+
+	@Test
+	void reaproveitaIdRecebidoSomenteSeForValido() throws Exception {
+		MockHttpServletRequest valido = new MockHttpServletRequest("GET", "/api/artefatos");
+		valido.addHeader(RegistroRequisicoes.CABECALHO, "proxy-4f2a.91");
+		assertThat(executar(valido, new MockHttpServletResponse())).isEqualTo("proxy-4f2a.91");
+
+		MockHttpServletRequest invalido = new MockHttpServletRequest("GET", "/api/artefatos");
+		invalido.addHeader(RegistroRequisicoes.CABECALHO, "abc\nlinha forjada no log");
+		assertThat(executar(invalido, new MockHttpServletResponse())).matches("[0-9a-f]{16}");
+	}
+
+	private String executar(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+		AtomicReference<String> noMdc = new AtomicReference<>();
+		registro.doFilter(request, response, (req, res) -> noMdc.set(MDC.get(RegistroRequisicoes.MDC_CORRELACAO)));
+		return noMdc.get();
+	}
+}
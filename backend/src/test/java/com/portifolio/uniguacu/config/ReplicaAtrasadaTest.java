@@ -0,0 +1,90 @@
+package com.portifolio.uniguacu.config;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.service.ArtefatoProjecaoService;
+import com.portifolio.uniguacu.service.ArtefatoService;
+import com.portifolio.uniguacu.service.ExportacaoService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A réplica é um segundo H2 com o schema e sem replicação: tudo o que o primário grava fica "atrasado"
+// para sempre. Leituras logo depois de escrever precisam continuar vendo o que foi gravado.
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicaAtrasadaTest {
+
+	private static final String REPLICA = "jdbc:h2:mem:replica_atrasada;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private ArtefatoService artefatoService;
+
+	@Autowired
+	private ArtefatoProjecaoService artefatoProjecaoService;
+
+	@Autowired
+	private ExportacaoService exportacaoService;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@DynamicPropertySource
+	static void replica(DynamicPropertyRegistry registro) {
+		Flyway.configure().dataSource(REPLICA, "sa", "replica")
+				.locations("classpath:db/migration/comum", "classpath:db/migration/h2").load().migrate();
+		registro.add("banco.replicas", () -> REPLICA);
+		registro.add("banco.replica-username", () -> "sa");
+		registro.add("banco.replica-password", () -> "replica");
+	}
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void leituraDepoisDeEscreverVaiAoPrimario() {
+		Long id = criarPendente();
+
+		// Métodos de leitura do repositório fora de transação e @Transactional(readOnly = true)
+		assertThat(artefatoRepository.findById(id)).isPresent();
+		assertThat(artefatoProjecaoService.porIds(List.of(id), List.of("id"), null)).hasSize(1);
+
+		// Ler e gravar em cima do que foi lido
+		assertThat(artefatoService.aprovar(id)).hasValueSatisfying(
+				artefato -> assertThat(artefato.getStatus()).isEqualTo(StatusProjeto.APROVADO));
+		assertThat(artefatoRepository.findById(id)).hasValueSatisfying(
+				artefato -> assertThat(artefato.getStatus()).isEqualTo(StatusProjeto.APROVADO));
+		assertThat(artefatoService.deletar(id)).isPresent();
+		assertThat(artefatoRepository.existsById(id)).isFalse();
+	}
+
+	@Test
+	void leituraMarcadaVaiParaAReplica() throws Exception {
+		Long id = criarPendente();
+		artefatoService.aprovar(id);
+
+		// A exportação (@LeituraReplica) lê a réplica, que ainda não tem o artefato aprovado
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		assertThat(exportacaoService.exportar(saida, true, true)).isZero();
+	}
+
+	private Long criarPendente() {
+		return artefatos.criar("Projeto novo", StatusProjeto.PENDENTE).getId();
+	}
+}
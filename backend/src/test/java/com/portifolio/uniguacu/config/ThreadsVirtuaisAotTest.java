@@ -0,0 +1,30 @@
+package com.portifolio.uniguacu.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sem AOT o marcador e a subida leem a mesma configuração; aqui o valor "do build" é passado direto
+class ThreadsVirtuaisAotTest {
+
+	@Test
+	void subidaIgualAoBuildPassa() {
+		assertThatCode(() -> ThreadsVirtuaisAot.conferir(false, new MockEnvironment())).doesNotThrowAnyException();
+		assertThatCode(() -> ThreadsVirtuaisAot.conferir(true, virtuais("true"))).doesNotThrowAnyException();
+	}
+
+	@Test
+	void subidaDiferenteDoBuildNaoSobe() {
+		assertThatThrownBy(() -> ThreadsVirtuaisAot.conferir(false, virtuais("true")))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("-Dspring.threads.virtual.enabled=true");
+		assertThatThrownBy(() -> ThreadsVirtuaisAot.conferir(true, virtuais("false")))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private MockEnvironment virtuais(String valor) {
+		return new MockEnvironment().withProperty("spring.threads.virtual.enabled", valor);
+	}
+}
@@ -0,0 +1,137 @@
+package com.portifolio.uniguacu.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.service.FacetaIndexService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Artefatos sem data de criação no meio da paginação: o índice de facetas e a busca no banco
+// precisam devolver a mesma ordem, sem repetir nem pular itens entre as páginas
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArtefatoPaginacaoTest {
+
+	private static final String CURSO = "Paginação";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private FacetaIndexService facetaIndexService;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+		facetaIndexService.reconstruir();
+	}
+
+	@Test
+	void semDataVemPrimeiroNosDoisCaminhosESemRepetirEntrePaginas() throws Exception {
+		Long marco1 = criar(LocalDate.of(2024, 3, 1));
+		Long semData1 = criar(null);
+		Long abril = criar(LocalDate.of(2024, 4, 1));
+		Long semData2 = criar(null);
+		Long marco2 = criar(LocalDate.of(2024, 3, 1));
+		Long semData3 = criar(null);
+		List<Long> esperada = List.of(semData3, semData2, semData1, abril, marco2, marco1);
+
+		// Páginas de 2 param em artefatos sem data: o cursor precisa atravessar a fronteira sem/com data
+		assertThat(percorrerApi(2)).containsExactlyElementsOf(esperada);
+		assertThat(percorrerApi(4)).containsExactlyElementsOf(esperada);
+		assertThat(percorrerBanco(2)).containsExactlyElementsOf(esperada);
+		assertThat(percorrerBanco(1)).containsExactlyElementsOf(esperada);
+	}
+
+	@Test
+	void cursorDeArtefatoSemDataNaoLevaONull() throws Exception {
+		criar(null);
+		Long semData = criar(null);
+
+		JsonNode pagina = pagina(get("/api/artefatos").param("curso", CURSO).param("limite", "1"));
+		String cursor = new String(Base64.getUrlDecoder().decode(pagina.get("next").asText()), StandardCharsets.UTF_8);
+
+		assertThat(cursor).isEqualTo("|" + semData);
+		assertThat(mvc.perform(get("/api/artefatos").param("limite", "1").param("cursor",
+				Base64.getUrlEncoder().withoutPadding().encodeToString("null|1".getBytes(StandardCharsets.UTF_8))))
+				.andReturn().getResponse().getStatus()).isEqualTo(400);
+	}
+
+	// Caminho do índice de facetas, pela API
+	private List<Long> percorrerApi(int limite) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder requisicao = get("/api/artefatos").param("curso", CURSO)
+					.param("limite", String.valueOf(limite));
+			if (cursor != null) {
+				requisicao.param("cursor", cursor);
+			}
+			JsonNode pagina = pagina(requisicao);
+			pagina.get("itens").forEach(item -> ids.add(item.get("id").asLong()));
+			cursor = pagina.get("next").isNull() ? null : pagina.get("next").asText();
+		} while (cursor != null);
+		return ids;
+	}
+
+	// Caminho do banco (usado enquanto o índice não está pronto), com o cursor montado como no controller
+	private List<Long> percorrerBanco(int limite) {
+		List<Long> ids = new ArrayList<>();
+		LocalDate cursorData = null;
+		Long cursorId = null;
+		List<Artefato> pagina;
+		do {
+			pagina = artefatoRepository.searchByStatusAposCursor(StatusProjeto.APROVADO.name(),
+					null, CURSO, null, null, null, null, null, cursorData, cursorId, limite);
+			for (Artefato artefato : pagina) {
+				ids.add(artefato.getId());
+				cursorData = artefato.getDataCriacao();
+				cursorId = artefato.getId();
+			}
+		} while (!pagina.isEmpty());
+		return ids;
+	}
+
+	private JsonNode pagina(MockHttpServletRequestBuilder requisicao) throws Exception {
+		return objectMapper.readTree(mvc.perform(requisicao).andReturn().getResponse()
+				.getContentAsString(StandardCharsets.UTF_8));
+	}
+
+	private Long criar(LocalDate dataCriacao) {
+		Artefato artefato = ArtefatosDeTeste.novo("Projeto", StatusProjeto.APROVADO);
+		artefato.setCurso(CURSO);
+		artefato.setDataCriacao(dataCriacao);
+		artefato = artefatos.criar(artefato);
+		facetaIndexService.indexar(artefato);
+		return artefato.getId();
+	}
+}
@@ -0,0 +1,124 @@
+package com.portifolio.uniguacu.controller;
+
+import com.portifolio.uniguacu.model.Usuario;
+import com.portifolio.uniguacu.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerTest {
+
+	private static final String EMAIL = "login@uniguacu.edu.br";
+	private static final String SENHA = "segredo123";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private AuthenticationManager authenticationManager;
+
+	@AfterEach
+	void limpar() {
+		usuarioRepository.findByEmail(EMAIL).ifPresent(usuarioRepository::delete);
+	}
+
+	@Test
+	void poolDeBcryptCheioRespondeTooManyRequestsMesmoParaUsuarioInexistente() throws Exception {
+		criarUsuario(passwordEncoder.encode(SENHA));
+		for (AuthenticationProvider provedor : ((ProviderManager) authenticationManager).getProviders()) {
+			ReflectionTestUtils.setField(provedor, "userNotFoundEncodedPassword", null);
+		}
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordEncoder, "executor");
+		CountDownLatch liberar = new CountDownLatch(1);
+		try {
+			// Todas as threads presas e a fila cheia: nenhum hash novo entra
+			Runnable presa = () -> {
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			};
+			for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+				executor.execute(presa);
+			}
+			while (executor.getActiveCount() < executor.getMaximumPoolSize()) {
+				Thread.sleep(10);
+			}
+			for (int i = executor.getQueue().remainingCapacity(); i > 0; i--) {
+				executor.execute(presa);
+			}
+
+			for (String email : new String[]{"ninguem@uniguacu.edu.br", EMAIL}) {
+				MockHttpServletResponse resposta = login(email, SENHA);
+				assertThat(resposta.getStatus()).as(email).isEqualTo(429);
+				assertThat(resposta.getHeader("Retry-After")).as(email).isEqualTo("2");
+			}
+		} finally {
+			liberar.countDown();
+		}
+		while (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) {
+			Thread.sleep(10);
+		}
+
+		// Com capacidade de novo, usuário inexistente volta a ser só credencial recusada
+		assertThat(login("ninguem@uniguacu.edu.br", SENHA).getStatus()).isNotEqualTo(429).isGreaterThanOrEqualTo(400);
+		assertThat(login(EMAIL, SENHA).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void loginRefazOHashGravadoComOutroCusto() throws Exception {
+		String hashAntigo = new BCryptPasswordEncoder(4).encode(SENHA);
+		criarUsuario(hashAntigo);
+		assertThat(passwordEncoder.upgradeEncoding(hashAntigo)).isTrue();
+
+		assertThat(login(EMAIL, SENHA).getStatus()).isEqualTo(200);
+
+		String hashNovo = usuarioRepository.findByEmail(EMAIL).orElseThrow().getPassword();
+		assertThat(hashNovo).isNotEqualTo(hashAntigo);
+		assertThat(passwordEncoder.upgradeEncoding(hashNovo)).isFalse();
+		assertThat(passwordEncoder.matches(SENHA, hashNovo)).isTrue();
+		assertThat(login(EMAIL, SENHA).getStatus()).isEqualTo(200);
+	}
+
+	private void criarUsuario(String hash) {
+		Usuario usuario = new Usuario();
+		usuario.setNomeCompleto("Login");
+		usuario.setEmail(EMAIL);
+		usuario.setPassword(hash);
+		usuarioRepository.save(usuario);
+	}
+
+	private MockHttpServletResponse login(String email, String senha) throws Exception {
+		return mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\":\"" + email + "\",\"password\":\"" + senha + "\"}"))
+				.andReturn().getResponse();
+	}
+}
@@ -0,0 +1,71 @@
+package com.portifolio.uniguacu.controller;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogoVersaoTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void respondeNaoModificadoAteUmComentarioNovoMudarAsVersoes() throws Exception {
+		Artefato artefato = ArtefatosDeTeste.novo("Versionado", StatusProjeto.APROVADO);
+		artefato.setDataCriacao(LocalDate.now());
+		artefato = artefatos.criar(artefato);
+		String comentarios = "/api/artefatos/" + artefato.getId() + "/comentarios";
+
+		MockHttpServletResponse lista = mvc.perform(get("/api/artefatos")).andReturn().getResponse();
+		MockHttpServletResponse detalhe = mvc.perform(get(comentarios)).andReturn().getResponse();
+		String etagLista = lista.getHeader("ETag");
+		String etagComentarios = detalhe.getHeader("ETag");
+		assertThat(etagLista).startsWith("W/\"c-");
+		assertThat(lista.getHeader("Cache-Control")).isEqualTo("no-cache");
+
+		MockHttpServletResponse naoModificada = mvc.perform(get("/api/artefatos").header("If-None-Match", etagLista))
+				.andReturn().getResponse();
+		assertThat(naoModificada.getStatus()).isEqualTo(304);
+		assertThat(naoModificada.getContentAsString()).isEmpty();
+		assertThat(mvc.perform(get(comentarios).header("If-None-Match", etagComentarios))
+				.andReturn().getResponse().getStatus()).isEqualTo(304);
+
+		mvc.perform(post(comentarios).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nome\":\"Banca\",\"texto\":\"Ótimo\",\"avaliacaoSolucao\":5}"));
+
+		MockHttpServletResponse novaLista = mvc.perform(get("/api/artefatos").header("If-None-Match", etagLista))
+				.andReturn().getResponse();
+		assertThat(novaLista.getStatus()).isEqualTo(200);
+		assertThat(novaLista.getHeader("ETag")).isNotEqualTo(etagLista);
+		MockHttpServletResponse novosComentarios = mvc.perform(get(comentarios).header("If-None-Match", etagComentarios))
+				.andReturn().getResponse();
+		assertThat(novosComentarios.getStatus()).isEqualTo(200);
+		assertThat(novosComentarios.getContentAsString()).contains("Banca");
+	}
+}
@@ -0,0 +1,56 @@
+package com.portifolio.uniguacu.controller;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ComentarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ComentarioControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void comentarioSemNomeOuTextoRespondeBadRequestSemEntrarNaFila() throws Exception {
+		Long artefatoId = artefatos.criar("Projeto", StatusProjeto.APROVADO).getId();
+		String comentarios = "/api/artefatos/" + artefatoId + "/comentarios";
+
+		assertThat(enviar(comentarios, "{\"texto\":\"Ótimo\"}")).isEqualTo(400);
+		assertThat(enviar(comentarios, "{\"nome\":\"  \",\"texto\":\"Ótimo\"}")).isEqualTo(400);
+		assertThat(enviar(comentarios, "{\"nome\":\"Banca\"}")).isEqualTo(400);
+		assertThat(enviar(comentarios, "{\"nome\":\"" + "x".repeat(256) + "\",\"texto\":\"Ótimo\"}")).isEqualTo(400);
+		assertThat(comentarioRepository.count()).isZero();
+
+		assertThat(enviar(comentarios, "{\"nome\":\"Banca\",\"texto\":\"Ótimo\"}")).isEqualTo(201);
+		assertThat(comentarioRepository.count()).isEqualTo(1);
+	}
+
+	private int enviar(String url, String corpo) throws Exception {
+		return mvc.perform(post(url).contentType(MediaType.APPLICATION_JSON).content(corpo))
+				.andReturn().getResponse().getStatus();
+	}
+}
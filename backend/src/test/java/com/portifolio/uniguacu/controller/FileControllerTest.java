@@ -0,0 +1,105 @@
+package com.portifolio.uniguacu.controller;
+
+import com.portifolio.uniguacu.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FileControllerTest {
+
+	private static final String ARQUIVO = "5f0c6e1a-teste.pdf";
+	private static final String CONTEUDO = "0123456789abcdefghij";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private StorageProperties storageProperties;
+
+	@BeforeEach
+	void criarArquivo() throws Exception {
+		Path raiz = Paths.get(storageProperties.getLocation());
+		Files.createDirectories(raiz);
+		Files.writeString(raiz.resolve(ARQUIVO), CONTEUDO, StandardCharsets.US_ASCII);
+	}
+
+	@Test
+	void serveArquivoInteiroComValidadoresECacheImutavel() throws Exception {
+		MockHttpServletResponse resposta = mvc.perform(get("/api/files/" + ARQUIVO)).andReturn().getResponse();
+
+		assertThat(resposta.getStatus()).isEqualTo(200);
+		assertThat(resposta.getContentType()).isEqualTo("application/pdf");
+		assertThat(resposta.getHeader("Cache-Control")).contains("immutable");
+		assertThat(resposta.getHeader("ETag")).startsWith("\"");
+		assertThat(resposta.getHeader("Last-Modified")).isNotNull();
+		assertThat(resposta.getContentAsString()).isEqualTo(CONTEUDO);
+
+		MockHttpServletResponse condicional = mvc.perform(get("/api/files/" + ARQUIVO)
+				.header("If-None-Match", resposta.getHeader("ETag"))).andReturn().getResponse();
+		assertThat(condicional.getStatus()).isEqualTo(304);
+		assertThat(condicional.getContentLength()).isZero();
+	}
+
+	@Test
+	void respondeUmIntervaloCom206() throws Exception {
+		MockHttpServletResponse resposta = mvc.perform(get("/api/files/" + ARQUIVO).header("Range", "bytes=-5"))
+				.andReturn().getResponse();
+
+		assertThat(resposta.getStatus()).isEqualTo(206);
+		assertThat(resposta.getHeader("Content-Range")).isEqualTo("bytes 15-19/20");
+		assertThat(resposta.getContentAsString()).isEqualTo("fghij");
+	}
+
+	@Test
+	void respondeVariosIntervalosComoMultipartEUneOsSobrepostos() throws Exception {
+		MockHttpServletResponse resposta = mvc.perform(get("/api/files/" + ARQUIVO)
+				.header("Range", "bytes=0-1,10-12,1-3,50-60")).andReturn().getResponse();
+
+		assertThat(resposta.getStatus()).isEqualTo(206);
+		assertThat(resposta.getContentType()).startsWith("multipart/byteranges; boundary=");
+		String corpo = resposta.getContentAsString();
+		assertThat(corpo).contains("Content-Range: bytes 0-3/20\r\n\r\n0123\r\n");
+		assertThat(corpo).contains("Content-Range: bytes 10-12/20\r\n\r\nabc\r\n");
+		assertThat(corpo.getBytes(StandardCharsets.US_ASCII)).hasSize(resposta.getContentLength());
+	}
+
+	@Test
+	void ignoraRangeQuandoIfRangeNaoConfere() throws Exception {
+		MockHttpServletResponse resposta = mvc.perform(get("/api/files/" + ARQUIVO)
+				.header("Range", "bytes=0-1").header("If-Range", "\"outra-versao\"")).andReturn().getResponse();
+
+		assertThat(resposta.getStatus()).isEqualTo(200);
+		assertThat(resposta.getContentAsString()).isEqualTo(CONTEUDO);
+	}
+
+	@Test
+	void intervaloForaDoArquivoResponde416() throws Exception {
+		MockHttpServletResponse resposta = mvc.perform(get("/api/files/" + ARQUIVO).header("Range", "bytes=100-200"))
+				.andReturn().getResponse();
+
+		assertThat(resposta.getStatus()).isEqualTo(416);
+		assertThat(resposta.getHeader("Content-Range")).isEqualTo("bytes */20");
+	}
+
+	@Test
+	void arquivoInexistenteOuForaDoDiretorioResponde404() throws Exception {
+		assertThat(mvc.perform(get("/api/files/nao-existe.png")).andReturn().getResponse().getStatus()).isEqualTo(404);
+		assertThat(mvc.perform(get("/api/files/..%2Fapplication.properties")).andReturn().getResponse().getStatus()).isIn(400, 404);
+	}
+}
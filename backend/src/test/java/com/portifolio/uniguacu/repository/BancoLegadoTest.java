@@ -0,0 +1,120 @@
+package com.portifolio.uniguacu.repository;
+
+import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.service.AvaliacaoService;
+import com.portifolio.uniguacu.service.ComentarioIngestaoService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sobe a aplicação sobre um banco criado pelo código original (schema da V1, ids das colunas IDENTITY) e já
+// com dados: as migrações seguintes precisam posicionar as sequências depois dos ids existentes
+@SpringBootTest
+@ActiveProfiles("test")
+class BancoLegadoTest {
+
+	private static final String URL = "jdbc:h2:mem:legado;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+	private static final String USUARIO = "sa";
+	private static final String SENHA = "legado";
+	private static final int ARTEFATOS_LEGADOS = 120;
+	private static final int COMENTARIOS_LEGADOS = 80;
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private AvaliacaoService avaliacaoService;
+
+	@Autowired
+	private ComentarioIngestaoService ingestao;
+
+	// Roda antes de o contexto subir (e de o Flyway da aplicação aplicar a V2 em diante)
+	@DynamicPropertySource
+	static void bancoLegado(DynamicPropertyRegistry registro) throws SQLException {
+		Flyway.configure().dataSource(URL, USUARIO, SENHA).locations("classpath:db/migration/comum").target("1").load().migrate();
+		try (Connection conexao = DriverManager.getConnection(URL, USUARIO, SENHA);
+			 PreparedStatement artefato = conexao.prepareStatement(
+					 "INSERT INTO artefato (titulo, data_criacao, status) VALUES (?, ?, 'APROVADO')");
+			 PreparedStatement comentario = conexao.prepareStatement(
+					 "INSERT INTO comentario (artefato_id, nome, texto, data_criacao) VALUES (1, 'Avaliador', 'Legado', ?)")) {
+			for (int i = 1; i <= ARTEFATOS_LEGADOS; i++) {
+				artefato.setString(1, "Legado " + i);
+				artefato.setObject(2, LocalDate.of(2023, 1, 1).plusDays(i));
+				artefato.addBatch();
+			}
+			artefato.executeBatch();
+			for (int i = 1; i <= COMENTARIOS_LEGADOS; i++) {
+				comentario.setObject(1, LocalDateTime.of(2023, 6, 1, 12, 0).plusMinutes(i));
+				comentario.addBatch();
+			}
+			comentario.executeBatch();
+		}
+		registro.add("spring.datasource.url", () -> URL);
+		registro.add("spring.datasource.username", () -> USUARIO);
+		registro.add("spring.datasource.password", () -> SENHA);
+	}
+
+	@Test
+	void novosArtefatosRecebemIdsDepoisDosExistentes() {
+		// Mais de um bloco de 50 da sequência
+		List<Artefato> novos = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			Artefato artefato = new Artefato();
+			artefato.setTitulo("Novo " + i);
+			artefato.setStatus(StatusProjeto.PENDENTE);
+			novos.add(artefato);
+		}
+		List<Artefato> salvos = artefatoRepository.saveAll(novos);
+
+		assertThat(salvos).allSatisfy(artefato -> assertThat(artefato.getId()).isGreaterThan(ARTEFATOS_LEGADOS));
+		assertThat(artefatoRepository.count()).isEqualTo(ARTEFATOS_LEGADOS + 60);
+		assertThat(artefatoRepository.findById(1L)).hasValueSatisfying(
+				artefato -> assertThat(artefato.getTitulo()).isEqualTo("Legado 1"));
+	}
+
+	@Test
+	void novosComentariosRecebemIdsDepoisDosExistentes() {
+		Artefato artefato = artefatoRepository.findById(1L).orElseThrow();
+		List<Long> ids = new ArrayList<>();
+		// Os dois caminhos de gravação tiram ids do mesmo gerador: o write-behind e o save() do JPA
+		for (int i = 0; i < 30; i++) {
+			ComentarioDTO pelaFila = new ComentarioDTO();
+			pelaFila.setArtefatoId(1L);
+			pelaFila.setNome("Avaliador");
+			pelaFila.setTexto("Pela fila " + i);
+			assertThat(ingestao.enfileirar(pelaFila)).isTrue();
+			ids.add(pelaFila.getId());
+
+			Comentario peloSave = new Comentario();
+			peloSave.setArtefato(artefato);
+			peloSave.setNome("Avaliador");
+			peloSave.setTexto("Pelo save " + i);
+			peloSave.setDataCriacao(LocalDateTime.now());
+			ids.add(avaliacaoService.adicionarComentario(peloSave).getId());
+		}
+
+		assertThat(ids).doesNotHaveDuplicates().allSatisfy(id -> assertThat(id).isGreaterThan(COMENTARIOS_LEGADOS));
+		assertThat(comentarioRepository.count()).isEqualTo(COMENTARIOS_LEGADOS + 60);
+	}
+}
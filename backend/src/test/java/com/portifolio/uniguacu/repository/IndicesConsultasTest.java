@@ -0,0 +1,104 @@
+package com.portifolio.uniguacu.repository;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Confere pelo EXPLAIN do H2 que as consultas mais chamadas usam os índices das migrações
+// (db/migration/h2/V3__indices_consultas.sql) em vez de varrer a tabela. O SQL explicado é o que o Hibernate
+// gera de fato, capturado do logger org.hibernate.SQL enquanto o método do repositório roda.
+// O H2 planeja com os parâmetros desconhecidos: os filtros opcionais (:curso IS NULL OR ...) ficam fora do
+// índice. No PostgreSQL cada execução é planejada com os valores e usa o parcial idx_artefato_filtros.
+@SpringBootTest
+@ActiveProfiles("test")
+class IndicesConsultasTest {
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void catalogoUsaIndiceDeArtefatoPorStatus() {
+		String paginado = sqlGerado(() -> artefatoRepository.searchByStatusAposCursor(StatusProjeto.APROVADO.name(),
+				null, "Engenharia", null, null, null, null, null, null, null, 21));
+		String completo = sqlGerado(() -> artefatoRepository.searchByStatus(StatusProjeto.APROVADO.name(),
+				null, null, null, null, 3, null, null));
+
+		assertThat(plano(paginado)).contains("/* public.idx_artefato_").doesNotContain("tableScan");
+		assertThat(plano(completo)).contains("/* public.idx_artefato_").doesNotContain("tableScan");
+	}
+
+	@Test
+	void listagemDoAdminPorStatusUsaIndice() {
+		String sql = sqlGerado(() -> artefatoRepository.findByStatus(StatusProjeto.PENDENTE));
+
+		assertThat(plano(sql)).contains("/* public.idx_artefato_").doesNotContain("tableScan");
+	}
+
+	@Test
+	void alunosPorRoleUsamIndiceDeRole() {
+		String sql = sqlGerado(() -> usuarioRepository.findAllByRole("ROLE_ALUNO"));
+
+		assertThat(plano(sql)).contains("/* public.idx_usuarios_role").doesNotContain("tableScan");
+	}
+
+	@Test
+	void paginasDeComentariosUsamIndiceDoArtefato() {
+		String primeira = sqlGerado(() -> comentarioRepository.findPrimeiraPagina(1L, Limit.of(20)));
+		String seguinte = sqlGerado(() -> comentarioRepository.findPaginaAposCursor(1L,
+				LocalDateTime.of(2024, 5, 10, 12, 0), 100L, Limit.of(20)));
+
+		// O H2 cria um índice próprio para a chave estrangeira e, sem conseguir ordenar por um índice cujas
+		// primeiras colunas são de igualdade, empata os dois; no PostgreSQL é idx_comentario_artefato_data
+		assertThat(plano(primeira)).contains("artefato_id = ?1 */").doesNotContain("tableScan");
+		assertThat(plano(seguinte)).contains("artefato_id = ?1").doesNotContain("tableScan");
+	}
+
+	// Último comando SQL que o Hibernate registrou enquanto a consulta rodava
+	private String sqlGerado(Runnable consulta) {
+		Logger logger = (Logger) LoggerFactory.getLogger("org.hibernate.SQL");
+		Level nivel = logger.getLevel();
+		boolean aditivo = logger.isAdditive();
+		ListAppender<ILoggingEvent> capturado = new ListAppender<>();
+		capturado.start();
+		logger.addAppender(capturado);
+		logger.setAdditive(false);
+		logger.setLevel(Level.DEBUG);
+		try {
+			consulta.run();
+		} finally {
+			logger.setLevel(nivel);
+			logger.setAdditive(aditivo);
+			logger.detachAppender(capturado);
+		}
+		assertThat(capturado.list).isNotEmpty();
+		return capturado.list.get(capturado.list.size() - 1).getFormattedMessage();
+	}
+
+	// O H2 aceita EXPLAIN com os parâmetros (?) sem valor
+	private String plano(String sql) {
+		return jdbcTemplate.query(conexao -> conexao.prepareStatement("EXPLAIN " + sql),
+				(rs, linha) -> rs.getString(1)).get(0);
+	}
+}
@@ -0,0 +1,84 @@
+package com.portifolio.uniguacu.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+	private final JwtTokenProvider provider = new JwtTokenProvider(100, Duration.ofMinutes(10));
+
+	@Test
+	void tokenValidoDevolveAsClaimsEFicaNoCache() {
+		String token = provider.generateToken(new UsernamePasswordAuthenticationToken("aluno@uniguacu.edu.br", null, List.of()));
+
+		Claims claims = provider.verificar(token);
+		assertThat(claims.getSubject()).isEqualTo("aluno@uniguacu.edu.br");
+		assertThat(verificados().estimatedSize()).isEqualTo(1);
+		// A segunda verificação vem do cache, sem verificar a assinatura de novo
+		assertThat(provider.verificar(token)).isSameAs(claims);
+		assertThat(provider.getUsernameFromJWT(token)).isEqualTo("aluno@uniguacu.edu.br");
+	}
+
+	@Test
+	void assinaturaAdulteradaDevolveNull() {
+		String token = provider.generateToken(new UsernamePasswordAuthenticationToken("aluno@uniguacu.edu.br", null, List.of()));
+		int assinatura = token.lastIndexOf('.') + 1;
+		char trocado = token.charAt(assinatura) == 'A' ? 'B' : 'A';
+		String adulterado = token.substring(0, assinatura) + trocado + token.substring(assinatura + 1);
+
+		assertThat(provider.verificar(adulterado)).isNull();
+		assertThat(provider.validateToken(adulterado)).isFalse();
+		assertThat(verificados().estimatedSize()).isZero();
+	}
+
+	@Test
+	void tokenExpiradoDevolveNullENaoEntraNoCache() {
+		String token = token(new Date(System.currentTimeMillis() - 1000));
+
+		assertThat(provider.verificar(token)).isNull();
+		assertThat(verificados().estimatedSize()).isZero();
+	}
+
+	@Test
+	void entradaNaoViveAlemDoExpNemDaExpiracaoMaxima() {
+		String curto = token(new Date(System.currentTimeMillis() + 30_000));
+		String longo = token(new Date(System.currentTimeMillis() + Duration.ofDays(7).toMillis()));
+
+		assertThat(provider.verificar(curto)).isNotNull();
+		assertThat(expiraEmMs()).isPositive().isLessThanOrEqualTo(30_000);
+
+		verificados().invalidateAll();
+		assertThat(provider.verificar(longo)).isNotNull();
+		assertThat(expiraEmMs()).isGreaterThan(Duration.ofMinutes(9).toMillis())
+				.isLessThanOrEqualTo(Duration.ofMinutes(10).toMillis());
+	}
+
+	// Assinado com a chave do provider, mas com o 'exp' escolhido pelo teste
+	private String token(Date expiracao) {
+		SecretKey chave = (SecretKey) ReflectionTestUtils.getField(provider, "jwtSecret");
+		return Jwts.builder().setSubject("aluno@uniguacu.edu.br").setExpiration(expiracao).signWith(chave).compact();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Cache<String, Claims> verificados() {
+		return (Cache<String, Claims>) ReflectionTestUtils.getField(provider, "verificados");
+	}
+
+	private long expiraEmMs() {
+		Cache<String, Claims> cache = verificados();
+		String chave = cache.asMap().keySet().iterator().next();
+		return cache.policy().expireVariably().orElseThrow().getExpiresAfter(chave, TimeUnit.MILLISECONDS).orElseThrow();
+	}
+}
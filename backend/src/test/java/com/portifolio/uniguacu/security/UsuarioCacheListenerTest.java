@@ -0,0 +1,63 @@
+package com.portifolio.uniguacu.security;
+
+import com.portifolio.uniguacu.model.Usuario;
+import com.portifolio.uniguacu.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UsuarioCacheListenerTest {
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private PrincipalCache principalCache;
+
+	@Autowired
+	private CustomUserDetailsService customUserDetailsService;
+
+	private final AtomicInteger cargas = new AtomicInteger();
+
+	@Test
+	void trocaDeRoleERemocaoTiramOUsuarioDoCache() {
+		Usuario usuario = new Usuario();
+		usuario.setNomeCompleto("Cache");
+		usuario.setEmail("cache@uniguacu.edu.br");
+		usuario.setPassword("hash");
+		Usuario salvo = usuarioRepository.save(usuario);
+
+		assertThat(carregar(salvo).getRole()).isEqualTo("ROLE_USER");
+		assertThat(carregar(salvo).getRole()).isEqualTo("ROLE_USER");
+		assertThat(cargas).hasValue(1);
+
+		// @PostUpdate: a próxima requisição já vê a role nova, sem esperar o cache expirar
+		salvo.setRole("ROLE_ADMIN");
+		Usuario promovido = usuarioRepository.save(salvo);
+		assertThat(carregar(promovido).getRole()).isEqualTo("ROLE_ADMIN");
+		assertThat(carregar(promovido).getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMIN");
+		assertThat(cargas).hasValue(2);
+
+		// @PostRemove: o token de um usuário removido deixa de autenticar
+		usuarioRepository.delete(promovido);
+		assertThatThrownBy(() -> carregar(promovido)).isInstanceOf(UsernameNotFoundException.class);
+		assertThat(cargas).hasValue(3);
+	}
+
+	// O mesmo caminho do JwtAuthenticationFilter, contando as idas ao banco
+	private UsuarioPrincipal carregar(Usuario usuario) {
+		return principalCache.obter(usuario.getEmail(), email -> {
+			cargas.incrementAndGet();
+			return customUserDetailsService.carregarPrincipal(usuario.getId(), email);
+		});
+	}
+}
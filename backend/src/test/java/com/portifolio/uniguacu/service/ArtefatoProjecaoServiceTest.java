@@ -0,0 +1,81 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArtefatoProjecaoServiceTest {
+
+	@Autowired
+	private ArtefatoProjecaoService artefatoProjecaoService;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void resumoNaoTrazDescricaoNemListasEMantemAOrdemDosIds() {
+		Artefato primeiro = artefato("Primeiro", StatusProjeto.APROVADO);
+		Artefato segundo = artefato("Segundo", StatusProjeto.APROVADO);
+		Artefato pendente = artefato("Pendente", StatusProjeto.PENDENTE);
+
+		List<Map<String, Object>> itens = artefatoProjecaoService.porIds(
+				List.of(segundo.getId(), pendente.getId(), primeiro.getId()),
+				ArtefatoProjecaoService.RESUMO, StatusProjeto.APROVADO);
+
+		assertThat(itens).extracting(item -> item.get("titulo")).containsExactly("Segundo", "Primeiro");
+		assertThat(itens.get(0).keySet()).containsExactlyElementsOf(ArtefatoProjecaoService.RESUMO);
+		assertThat(itens.get(0).get("avaliacoes")).isInstanceOf(AvaliacaoAgregada.class);
+		assertThat(itens.get(0).get("dataCriacao")).isEqualTo(LocalDate.of(2024, 5, 10));
+	}
+
+	@Test
+	void fieldsSelecionaSoAsColunasPedidasMaisOId() {
+		Artefato artefato = artefato("Com descrição", StatusProjeto.PENDENTE);
+
+		List<String> campos = artefatoProjecaoService.campos("descricao, titulo", ArtefatoProjecaoService.RESUMO);
+		assertThat(campos).containsExactly("id", "titulo", "descricao");
+
+		List<Map<String, Object>> pendentes = artefatoProjecaoService.porStatus(StatusProjeto.PENDENTE, campos);
+		assertThat(pendentes).containsExactly(Map.of("id", artefato.getId(), "titulo", "Com descrição",
+				"descricao", "Descrição longa"));
+		assertThat(artefatoProjecaoService.projetar(List.of(artefato), campos)).isEqualTo(pendentes);
+	}
+
+	@Test
+	void recusaCampoDesconhecido() {
+		assertThatThrownBy(() -> artefatoProjecaoService.campos("titulo,senha", ArtefatoProjecaoService.RESUMO))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("senha");
+	}
+
+	private Artefato artefato(String titulo, StatusProjeto status) {
+		Artefato artefato = ArtefatosDeTeste.novo(titulo, status);
+		artefato.setDescricao("Descrição longa");
+		artefato.setAutor("Autor");
+		artefato.setCurso("Engenharia");
+		artefato.setListaImagens("[\"a.png\"]");
+		artefato.setDataCriacao(LocalDate.of(2024, 5, 10));
+		return artefatos.criar(artefato);
+	}
+}
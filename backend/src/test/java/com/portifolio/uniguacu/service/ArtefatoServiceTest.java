@@ -0,0 +1,85 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArquivoArmazenadoRepository;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArtefatoServiceTest {
+
+	@Autowired
+	private ArtefatoService artefatoService;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private ArquivoArmazenadoRepository arquivoArmazenadoRepository;
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void arquivoCitadoPorDoisArtefatosSoSomeQuandoONenhumCitaMais() {
+		// Um upload só; o segundo artefato reaproveita o nome sem enviar o arquivo de novo
+		String logo = fileStorageService.store(new MockMultipartFile("file", "logo.png", "image/png",
+				"logo compartilhado".getBytes(StandardCharsets.UTF_8)));
+		Path emDisco = fileStorageService.load(logo).orElseThrow();
+
+		Long primeiro = artefatoService.criar(artefato("Primeiro", logo)).getId();
+		Long segundo = artefatoService.criar(artefato("Segundo", logo)).getId();
+		assertThat(arquivoArmazenadoRepository.findById(logo.substring(0, 64)).orElseThrow().getReferencias()).isEqualTo(2);
+
+		artefatoService.deletar(primeiro).orElseThrow().forEach(fileStorageService::liberar);
+		assertThat(Files.exists(emDisco)).isTrue();
+
+		// Trocar a imagem do segundo devolve a última referência
+		ArtefatoService.Alteracao alteracao = artefatoService.atualizar(segundo, artefato("Segundo", null)).orElseThrow();
+		assertThat(alteracao.arquivosRemovidos()).containsExactly(logo);
+		alteracao.arquivosRemovidos().forEach(fileStorageService::liberar);
+		assertThat(Files.exists(emDisco)).isFalse();
+		assertThat(arquivoArmazenadoRepository.existsById(logo.substring(0, 64))).isFalse();
+	}
+
+	@Test
+	void artefatoQueCitaArquivoJaApagadoNaoEGravado() {
+		String logo = fileStorageService.store(new MockMultipartFile("file", "logo.png", "image/png",
+				"apagado antes da citação".getBytes(StandardCharsets.UTF_8)));
+		fileStorageService.liberar(logo);
+
+		assertThatThrownBy(() -> artefatoService.criar(artefato("Órfão", logo)))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThat(artefatoRepository.count()).isZero();
+	}
+
+	private Artefato artefato(String titulo, String imagem) {
+		Artefato artefato = ArtefatosDeTeste.novo(titulo, StatusProjeto.PENDENTE);
+		artefato.setUrlImagemPrincipal(imagem);
+		return artefato;
+	}
+}
@@ -0,0 +1,100 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.AvaliacaoAgregadaRepository;
+import com.portifolio.uniguacu.repository.ComentarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AvaliacaoServiceTest {
+
+	@Autowired
+	private AvaliacaoService avaliacaoService;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private AvaliacaoAgregadaRepository avaliacaoAgregadaRepository;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void atualizaContagemSomaMediaEHistogramaACadaComentario() {
+		Artefato artefato = artefato(StatusProjeto.APROVADO);
+		avaliacaoService.adicionarComentario(comentario(artefato, 5, 4, null));
+		avaliacaoService.adicionarComentario(comentario(artefato, 3, null, null));
+
+		AvaliacaoAgregada agregado = avaliacaoService.buscar(artefato.getId());
+		assertThat(agregado.getTotalComentarios()).isEqualTo(2);
+		assertThat(agregado.getSolucao().getTotal()).isEqualTo(2);
+		assertThat(agregado.getSolucao().getSoma()).isEqualTo(8);
+		assertThat(agregado.getSolucao().getMedia()).isEqualTo(4.0);
+		assertThat(agregado.getSolucao().getHistograma()).containsExactly(0, 0, 1, 0, 1);
+		assertThat(agregado.getVideo().getTotal()).isEqualTo(1);
+		assertThat(agregado.getImpacto().getTotal()).isZero();
+	}
+
+	@Test
+	void reconstroiAgregadosFaltantesAPartirDosComentarios() {
+		Artefato artefato = artefato(StatusProjeto.APROVADO);
+		comentarioRepository.save(comentario(artefato, 2, 2, 2));
+		comentarioRepository.save(comentario(artefato, 4, null, 5));
+		avaliacaoAgregadaRepository.deleteAll();
+
+		avaliacaoService.reconstruirFaltantes();
+
+		AvaliacaoAgregada agregado = avaliacaoAgregadaRepository.findById(artefato.getId()).orElseThrow();
+		assertThat(agregado.getTotalComentarios()).isEqualTo(2);
+		assertThat(agregado.getSolucao().getMedia()).isEqualTo(3.0);
+		assertThat(agregado.getImpacto().getHistograma()).containsExactly(0, 1, 0, 0, 1);
+	}
+
+	@Test
+	void rankingOrdenaPelaMediaDaDimensaoEIgnoraNaoAprovados() {
+		Artefato bom = artefato(StatusProjeto.APROVADO);
+		Artefato medio = artefato(StatusProjeto.APROVADO);
+		Artefato pendente = artefato(StatusProjeto.PENDENTE);
+		avaliacaoService.adicionarComentario(comentario(bom, 5, 1, null));
+		avaliacaoService.adicionarComentario(comentario(medio, 3, 5, null));
+		avaliacaoService.adicionarComentario(comentario(pendente, 5, 5, null));
+
+		assertThat(avaliacaoService.ranking("solucao", 1, 10))
+				.extracting(AvaliacaoAgregada::getArtefatoId).containsExactly(bom.getId(), medio.getId());
+		assertThat(avaliacaoService.ranking("video", 1, 1))
+				.extracting(AvaliacaoAgregada::getArtefatoId).containsExactly(medio.getId());
+		assertThat(avaliacaoService.ranking("impacto", 1, 10)).isEmpty();
+	}
+
+	private Artefato artefato(StatusProjeto status) {
+		return artefatos.criar("Projeto", status);
+	}
+
+	private Comentario comentario(Artefato artefato, Integer solucao, Integer video, Integer impacto) {
+		Comentario comentario = new Comentario();
+		comentario.setArtefato(artefato);
+		comentario.setNome("Avaliador");
+		comentario.setTexto("Comentário");
+		comentario.setAvaliacaoSolucao(solucao);
+		comentario.setAvaliacaoVideo(video);
+		comentario.setAvaliacaoImpacto(impacto);
+		return comentario;
+	}
+}
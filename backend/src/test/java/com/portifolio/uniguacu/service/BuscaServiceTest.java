@@ -0,0 +1,72 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuscaServiceTest {
+
+	private BuscaService buscaService;
+
+	@BeforeEach
+	void setUp() {
+		buscaService = new BuscaService();
+		buscaService.indexar(artefato(1, "Automação residencial com Arduino", "Ana Souza", "Controle de luzes", "Engenharia", StatusProjeto.APROVADO));
+		buscaService.indexar(artefato(2, "Horta comunitária", "Bruno Lima", "Projeto de automação da irrigação", "Agronomia", StatusProjeto.APROVADO));
+		buscaService.indexar(artefato(3, "Sistema de biblioteca", "Carla Automar", "Cadastro de livros", "Sistemas", StatusProjeto.APROVADO));
+		buscaService.indexar(artefato(4, "Automação industrial", "Diego Alves", "Ainda em avaliação", "Engenharia", StatusProjeto.PENDENTE));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		buscaService.fechar();
+	}
+
+	@Test
+	void ignoraAcentosERanqueiaTituloAntesDaDescricao() {
+		List<Long> ids = buscar("automacao", null);
+
+		assertThat(ids).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void ultimoTermoCasaPorPrefixo() {
+		assertThat(buscar("autom", null)).contains(1L, 2L, 3L);
+	}
+
+	@Test
+	void combinaTextoComFiltros() {
+		assertThat(buscar("automação", "Agronomia")).containsExactly(2L);
+	}
+
+	@Test
+	void remocaoAtualizaOIndice() {
+		buscaService.remover(1L);
+
+		assertThat(buscar("automação", null)).containsExactly(2L);
+	}
+
+	private List<Long> buscar(String texto, String curso) {
+		return buscaService.buscar(texto, StatusProjeto.APROVADO.name(), curso, null, null, null, null, null, 0, 10);
+	}
+
+	private Artefato artefato(long id, String titulo, String autor, String descricao, String curso, StatusProjeto status) {
+		Artefato artefato = new Artefato();
+		artefato.setId(id);
+		artefato.setTitulo(titulo);
+		artefato.setAutor(autor);
+		artefato.setDescricao(descricao);
+		artefato.setCurso(curso);
+		artefato.setDataCriacao(LocalDate.of(2024, 3, 1));
+		artefato.setStatus(status);
+		return artefato;
+	}
+}
@@ -0,0 +1,105 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.dto.ComentarioDTO;
+import com.portifolio.uniguacu.model.AvaliacaoAgregada;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.repository.ComentarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ComentarioIngestaoServiceTest {
+
+	@Autowired
+	private ComentarioIngestaoService ingestao;
+
+	@Autowired
+	private AvaliacaoService avaliacaoService;
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void gravaComentariosConcorrentesEmLoteEAtualizaAgregados() throws Exception {
+		Long artefatoId = artefatos.criar("Projeto", StatusProjeto.APROVADO).getId();
+
+		int quantidade = 120;
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Boolean>> respostas = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			int nota = i % 5 + 1;
+			respostas.add(executor.submit(() -> ingestao.enfileirar(comentario(artefatoId, nota))));
+		}
+		for (Future<Boolean> resposta : respostas) {
+			assertThat(resposta.get()).isTrue(); // Durabilidade CONFIRMADA: só responde após o commit
+		}
+		executor.shutdown();
+
+		assertThat(comentarioRepository.count()).isEqualTo(quantidade);
+		AvaliacaoAgregada agregado = avaliacaoService.buscar(artefatoId);
+		assertThat(agregado.getTotalComentarios()).isEqualTo(quantidade);
+		assertThat(agregado.getSolucao().getMedia()).isEqualTo(3.0);
+		assertThat(agregado.getSolucao().getHistograma()).containsOnly(quantidade / 5);
+	}
+
+	@Test
+	void comentarioDescartadoPorArtefatoApagadoResponde404() {
+		Long artefatoId = artefatoRepository.save(ArtefatosDeTeste.novo("Projeto", StatusProjeto.APROVADO)).getId();
+		assertThat(ingestao.existeArtefato(artefatoId)).isTrue();
+		artefatoRepository.deleteById(artefatoId);
+
+		// O cache ainda diz que existe; o INSERT falha pela chave estrangeira e o comentário é descartado
+		assertThat(ingestao.existeArtefato(artefatoId)).isTrue();
+		assertThatThrownBy(() -> ingestao.enfileirar(comentario(artefatoId, 5)))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						erro -> assertThat(erro.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+		assertThat(ingestao.existeArtefato(artefatoId)).isFalse();
+	}
+
+	@Test
+	void esquecerArtefatoApagadoLimpaOCache() {
+		Long artefatoId = artefatoRepository.save(ArtefatosDeTeste.novo("Projeto", StatusProjeto.APROVADO)).getId();
+		assertThat(ingestao.existeArtefato(artefatoId)).isTrue();
+
+		artefatoRepository.deleteById(artefatoId);
+		ingestao.esquecerArtefato(artefatoId);
+		assertThat(ingestao.existeArtefato(artefatoId)).isFalse();
+	}
+
+	private ComentarioDTO comentario(Long artefatoId, int nota) {
+		ComentarioDTO comentario = new ComentarioDTO();
+		comentario.setArtefatoId(artefatoId);
+		comentario.setNome("Avaliador");
+		comentario.setTexto("Comentário");
+		comentario.setAvaliacaoSolucao(nota);
+		return comentario;
+	}
+}
@@ -0,0 +1,90 @@
+package com.portifolio.uniguacu.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.Comentario;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoServiceTest {
+
+	@Autowired
+	private ExportacaoService exportacaoService;
+
+	@Autowired
+	private AvaliacaoService avaliacaoService;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void exportaAprovadosUmPorLinhaComComentariosEAvaliacoes() throws Exception {
+		artefatos.criar("Primeiro", StatusProjeto.APROVADO);
+		Artefato pendente = artefatos.criar("Pendente", StatusProjeto.PENDENTE);
+		Artefato comComentarios = artefatos.criar("Segundo", StatusProjeto.APROVADO);
+		comentar(pendente, 1);
+		comentar(comComentarios, 5);
+		comentar(comComentarios, 3);
+
+		List<JsonNode> linhas = exportar(true, true);
+
+		assertThat(linhas).extracting(linha -> linha.get("titulo").asText()).containsExactly("Primeiro", "Segundo");
+		assertThat(linhas.get(0).get("comentarios")).isEmpty();
+		assertThat(linhas.get(1).get("comentarios")).hasSize(2);
+		assertThat(linhas.get(1).get("avaliacoes").get("solucao").get("media").asDouble()).isEqualTo(4.0);
+	}
+
+	@Test
+	void omiteComentariosEAvaliacoesQuandoNaoPedidos() throws Exception {
+		Artefato artefato = artefatos.criar("Único", StatusProjeto.APROVADO);
+		comentar(artefato, 4);
+
+		List<JsonNode> linhas = exportar(false, false);
+
+		assertThat(linhas).hasSize(1);
+		assertThat(linhas.get(0).has("comentarios")).isFalse();
+		assertThat(linhas.get(0).has("avaliacoes")).isFalse();
+	}
+
+	private List<JsonNode> exportar(boolean comentarios, boolean avaliacoes) throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		exportacaoService.exportar(saida, comentarios, avaliacoes);
+		List<JsonNode> linhas = new ArrayList<>();
+		for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+			linhas.add(objectMapper.readTree(linha));
+		}
+		return linhas;
+	}
+
+	private void comentar(Artefato artefato, int nota) {
+		Comentario comentario = new Comentario();
+		comentario.setArtefato(artefato);
+		comentario.setNome("Avaliador");
+		comentario.setTexto("Comentário");
+		comentario.setAvaliacaoSolucao(nota);
+		avaliacaoService.adicionarComentario(comentario);
+	}
+}
@@ -0,0 +1,84 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.model.Artefato;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FacetaIndexServiceTest {
+
+	private FacetaIndexService indice;
+
+	@BeforeEach
+	void setUp() {
+		ArtefatoRepository repository = mock(ArtefatoRepository.class);
+		when(repository.findByStatus(StatusProjeto.APROVADO)).thenReturn(List.of(
+				artefato(1, "Engenharia", "Centro", 1, LocalDate.of(2024, 3, 1)),
+				artefato(2, "Engenharia", "Norte", 2, LocalDate.of(2024, 3, 5)),
+				artefato(3, "Sistemas", "Centro", 1, LocalDate.of(2024, 3, 5)),
+				artefato(4, "Engenharia", "Centro", 2, LocalDate.of(2024, 4, 1))));
+		indice = new FacetaIndexService(1 << 20, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(indice, "artefatoRepository", repository);
+		indice.reconstruir();
+	}
+
+	@Test
+	void ordenaPorDataEIdDecrescentesAPartirDoCursor() {
+		assertThat(buscar(null, null, null, 10)).containsExactly(4L, 3L, 2L, 1L);
+		assertThat(buscar(null, LocalDate.of(2024, 3, 5), 3L, 10)).containsExactly(2L, 1L);
+		assertThat(buscar("Engenharia", null, null, 2)).containsExactly(4L, 2L);
+	}
+
+	@Test
+	void contagemDeCadaFacetaIgnoraOProprioFiltro() {
+		var contagens = indice.contar("Engenharia", "Centro", null, null, null, null, null);
+
+		assertThat(contagens.get("curso")).containsEntry("Engenharia", 2).containsEntry("Sistemas", 1);
+		assertThat(contagens.get("campus")).containsEntry("Centro", 2).containsEntry("Norte", 1);
+		assertThat(contagens.get("semestre")).containsEntry("1", 1).containsEntry("2", 1);
+	}
+
+	@Test
+	void atualizacaoTiraDoIndiceQuemDeixaDeEstarAprovado() {
+		Artefato rejeitado = artefato(4, "Engenharia", "Centro", 2, LocalDate.of(2024, 4, 1));
+		rejeitado.setStatus(StatusProjeto.REJEITADO);
+		indice.indexar(rejeitado);
+
+		assertThat(buscar("Engenharia", null, null, 10)).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void desligaQuandoPassaDoLimiteDeMemoria() {
+		indice = new FacetaIndexService(64, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(indice, "artefatoRepository", mock(ArtefatoRepository.class));
+		indice.reconstruir();
+		indice.indexar(artefato(100_000, "Engenharia", "Centro", 1, LocalDate.of(2024, 1, 1)));
+
+		assertThat(indice.isPronto()).isFalse();
+	}
+
+	private List<Long> buscar(String curso, LocalDate cursorData, Long cursorId, int limite) {
+		return indice.buscarIds(curso, null, null, null, null, null, cursorData, cursorId, limite);
+	}
+
+	private Artefato artefato(long id, String curso, String campus, int semestre, LocalDate data) {
+		Artefato artefato = new Artefato();
+		artefato.setId(id);
+		artefato.setCurso(curso);
+		artefato.setCampus(campus);
+		artefato.setSemestre(semestre);
+		artefato.setDataCriacao(data);
+		artefato.setStatus(StatusProjeto.APROVADO);
+		return artefato;
+	}
+}
@@ -0,0 +1,123 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.config.StorageProperties;
+import com.portifolio.uniguacu.model.ArquivoArmazenado;
+import com.portifolio.uniguacu.repository.ArquivoArmazenadoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FileStorageServiceTest {
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private ArquivoArmazenadoRepository arquivoArmazenadoRepository;
+
+	@Autowired
+	private StorageProperties storageProperties;
+
+	@Test
+	void deduplicaPeloConteudoEmPastasPorPrefixoEApagaNaUltimaReferencia() {
+		String primeiro = fileStorageService.store(arquivo("logo.PNG", "mesmo conteúdo"));
+		String segundo = fileStorageService.store(arquivo("outro-nome.png", "mesmo conteúdo"));
+
+		assertThat(primeiro).isEqualTo(segundo).matches("[0-9a-f]{64}\\.png");
+		Path emDisco = fileStorageService.load(primeiro).orElseThrow();
+		assertThat(emDisco.getParent().getFileName().toString()).isEqualTo(primeiro.substring(2, 4));
+		assertThat(emDisco.getParent().getParent().getFileName().toString()).isEqualTo(primeiro.substring(0, 2));
+		// Upload não conta referência; quem cita o nome é que conta
+		assertThat(arquivoArmazenadoRepository.findById(primeiro.substring(0, 64)).orElseThrow().getReferencias()).isZero();
+		fileStorageService.reterTodos(List.of(primeiro, segundo));
+		assertThat(arquivoArmazenadoRepository.findById(primeiro.substring(0, 64)).orElseThrow().getReferencias()).isEqualTo(2);
+
+		fileStorageService.liberar(primeiro);
+		assertThat(Files.exists(emDisco)).isTrue();
+		fileStorageService.liberar(segundo);
+		assertThat(Files.exists(emDisco)).isFalse();
+		assertThat(arquivoArmazenadoRepository.existsById(primeiro.substring(0, 64))).isFalse();
+	}
+
+	@Test
+	void citarArquivoApagadoDepoisDoUploadRespondeConflito() {
+		String nome = fileStorageService.store(arquivo("apagado.png", "apagado antes de ser citado"));
+		fileStorageService.liberar(nome); // Upload ainda sem citação: a linha e o arquivo somem
+
+		assertThatThrownBy(() -> fileStorageService.reter(nome))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						erro -> assertThat(erro.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+	}
+
+	@Test
+	void apagaSoOsUploadsNaoCitadosDepoisDoPrazo() {
+		String abandonado = fileStorageService.store(arquivo("abandonado.png", "ninguém citou"));
+		String citado = fileStorageService.store(arquivo("citado.png", "citado por um artefato"));
+		String reenviado = fileStorageService.store(arquivo("reenviado.png", "enviado de novo"));
+		String recente = fileStorageService.store(arquivo("recente.png", "ainda no prazo"));
+		fileStorageService.reter(citado);
+		envelhecer(abandonado);
+		envelhecer(citado);
+		envelhecer(reenviado);
+		Path emDisco = fileStorageService.load(abandonado).orElseThrow();
+
+		// O mesmo conteúdo enviado de novo recomeça o prazo
+		assertThat(fileStorageService.store(arquivo("reenviado.png", "enviado de novo"))).isEqualTo(reenviado);
+
+		assertThat(fileStorageService.apagarNaoCitados()).isEqualTo(1);
+		assertThat(Files.exists(emDisco)).isFalse();
+		assertThat(arquivoArmazenadoRepository.existsById(abandonado.substring(0, 64))).isFalse();
+		assertThat(fileStorageService.load(citado)).isPresent();
+		assertThat(fileStorageService.load(reenviado)).isPresent();
+		assertThat(fileStorageService.load(recente)).isPresent();
+
+		fileStorageService.liberar(citado);
+		fileStorageService.liberar(reenviado);
+		fileStorageService.liberar(recente);
+	}
+
+	@Test
+	void continuaServindoNomesUuidAntigosDaRaiz() throws Exception {
+		Path antigo = Paths.get(storageProperties.getLocation()).resolve("3f2a1b4c-0000-4000-8000-000000000000.jpg");
+		Files.writeString(antigo, "foto antiga");
+
+		assertThat(fileStorageService.load(antigo.getFileName().toString())).isPresent();
+		assertThat(fileStorageService.load("../" + antigo.getFileName())).isEmpty();
+		fileStorageService.liberar(antigo.getFileName().toString()); // sem contagem: não apaga
+		assertThat(Files.exists(antigo)).isTrue();
+	}
+
+	@Test
+	void encontraNomesReferenciadosNosCamposDoArtefato() {
+		String sha = "a".repeat(64);
+		assertThat(fileStorageService.nomesReferenciados(sha + ".png",
+				"[\"" + sha + ".png\", \"" + "b".repeat(64) + ".jpg\", \"legado.jpg\"]", null))
+				.containsExactly(sha + ".png", "b".repeat(64) + ".jpg");
+	}
+
+	private void envelhecer(String nome) {
+		ArquivoArmazenado arquivo = arquivoArmazenadoRepository.findById(nome.substring(0, 64)).orElseThrow();
+		arquivo.setDataCriacao(LocalDateTime.now().minus(storageProperties.getPrazoNaoCitados()).minusMinutes(1));
+		arquivoArmazenadoRepository.save(arquivo);
+	}
+
+	private MockMultipartFile arquivo(String nome, String conteudo) {
+		return new MockMultipartFile("file", nome, "image/png", conteudo.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,161 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.service.ImagemVarianteService.Tamanho;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImagemVarianteServiceTest {
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private ImagemVarianteService imagemVarianteService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void uploadGeraAsVariantesReduzidasEmSegundoPlano() throws Exception {
+		String nome = fileStorageService.store(imagem("foto.jpg", "jpg", 2000, 1000, Color.ORANGE));
+		Path original = fileStorageService.load(nome).orElseThrow();
+
+		Path thumb = aguardar(nome, original, Tamanho.THUMB);
+		BufferedImage lida = ImageIO.read(thumb.toFile());
+		assertThat(lida.getWidth()).isEqualTo(160);
+		assertThat(lida.getHeight()).isEqualTo(80);
+		assertThat(thumb.getFileName().toString()).endsWith(".jpg");
+
+		Path full = aguardar(nome, original, Tamanho.FULL);
+		assertThat(ImageIO.read(full.toFile()).getWidth()).isEqualTo(1600);
+
+		fileStorageService.liberar(nome);
+		assertThat(Files.exists(thumb)).isFalse();
+		assertThat(Files.exists(full)).isFalse();
+	}
+
+	@Test
+	void pngContinuaPngENaoAmpliaImagemPequena() throws Exception {
+		String nome = fileStorageService.store(imagem("icone.png", "png", 100, 50, new Color(0, 0, 255, 128)));
+		Path original = fileStorageService.load(nome).orElseThrow();
+
+		Path card = aguardar(nome, original, Tamanho.CARD);
+		BufferedImage lida = ImageIO.read(card.toFile());
+		assertThat(card.getFileName().toString()).endsWith(".png");
+		assertThat(lida.getWidth()).isEqualTo(100);
+		assertThat(lida.getColorModel().hasAlpha()).isTrue();
+	}
+
+	@Test
+	void jpegComOrientacaoExifGeraVarianteDePe() throws Exception {
+		// Foto deitada no sensor (esquerda vermelha, direita azul) com orientação 6: girar 90° no sentido horário
+		BufferedImage deitada = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = deitada.createGraphics();
+		g.setColor(Color.RED);
+		g.fillRect(0, 0, 100, 100);
+		g.setColor(Color.BLUE);
+		g.fillRect(100, 0, 100, 100);
+		g.dispose();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ImageIO.write(deitada, "jpg", bytes);
+		String nome = fileStorageService.store(new MockMultipartFile("file", "retrato.jpg", "image/jpeg",
+				comOrientacaoExif(bytes.toByteArray(), 6)));
+
+		BufferedImage lida = ImageIO.read(aguardar(nome, fileStorageService.load(nome).orElseThrow(), Tamanho.THUMB).toFile());
+		assertThat(lida.getWidth()).isEqualTo(80);
+		assertThat(lida.getHeight()).isEqualTo(160);
+		assertThat(new Color(lida.getRGB(40, 20)).getRed()).isGreaterThan(200);
+		assertThat(new Color(lida.getRGB(40, 140)).getBlue()).isGreaterThan(200);
+
+		fileStorageService.liberar(nome);
+	}
+
+	@Test
+	void arquivoQueNaoEImagemNaoTemVariante() throws Exception {
+		MockMultipartFile pdf = new MockMultipartFile("file", "trabalho.pdf", "application/pdf", new byte[]{1, 2, 3});
+		String nome = fileStorageService.store(pdf);
+
+		assertThat(imagemVarianteService.variante(nome, fileStorageService.load(nome).orElseThrow(), Tamanho.THUMB)).isEmpty();
+	}
+
+	@Test
+	void originalQueOImageIONaoAbreNaoContaComoFalha() throws Exception {
+		Path pasta = Files.createTempDirectory("variantes");
+		Path inexistente = pasta.resolve("sumiu.png");
+		Path destino = pasta.resolve("thumb.png");
+		double falhasAntes = meterRegistry.counter("imagens.variantes.falhas").count();
+
+		// Chamado direto para não depender da fila: sem ImageInputStream é só um formato não suportado
+		ReflectionTestUtils.invokeMethod(imagemVarianteService, "gerar", inexistente, destino, Tamanho.THUMB);
+
+		assertThat(meterRegistry.counter("imagens.variantes.falhas").count()).isEqualTo(falhasAntes);
+		assertThat(Files.exists(destino)).isFalse();
+		Files.delete(pasta);
+	}
+
+	// A variante pode já ter sido gerada pelo upload ou ser agendada agora; espera até ela aparecer
+	private Path aguardar(String nome, Path original, Tamanho tamanho) throws InterruptedException {
+		for (int tentativa = 0; tentativa < 100; tentativa++) {
+			Optional<Path> variante = imagemVarianteService.variante(nome, original, tamanho);
+			if (variante.isPresent()) {
+				return variante.get();
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Variante " + tamanho + " não foi gerada");
+	}
+
+	// Segmento APP1 com um IFD TIFF de uma entrada só (0x0112), logo depois do APP0 (JFIF) gravado pelo ImageIO
+	private byte[] comOrientacaoExif(byte[] jpeg, int orientacao) {
+		ByteBuffer app1 = ByteBuffer.allocate(2 + 2 + 6 + 8 + 2 + 12 + 4);
+		app1.putShort((short) 0xFFE1).putShort((short) (app1.capacity() - 2));
+		app1.put("Exif\0\0".getBytes(StandardCharsets.US_ASCII));
+		app1.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+		app1.putShort((short) 1);
+		app1.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientacao).putShort((short) 0);
+		app1.putInt(0);
+
+		int fimApp0 = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		saida.write(jpeg, 0, fimApp0);
+		saida.writeBytes(app1.array());
+		saida.write(jpeg, fimApp0, jpeg.length - fimApp0);
+		return saida.toByteArray();
+	}
+
+	private MockMultipartFile imagem(String nome, String formato, int largura, int altura, Color cor) throws Exception {
+		BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = imagem.createGraphics();
+		g.setColor(cor);
+		g.fillRect(0, 0, largura, altura);
+		g.dispose();
+		if (formato.equals("jpg")) {
+			BufferedImage rgb = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+			rgb.createGraphics().drawImage(imagem, 0, 0, null);
+			imagem = rgb;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ImageIO.write(imagem, formato, bytes);
+		return new MockMultipartFile("file", nome, "image/" + formato, bytes.toByteArray());
+	}
+}
@@ -0,0 +1,85 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.ArtefatosDeTeste;
+import com.portifolio.uniguacu.dto.ImportacaoResultadoDTO;
+import com.portifolio.uniguacu.model.StatusProjeto;
+import com.portifolio.uniguacu.repository.ArtefatoRepository;
+import com.portifolio.uniguacu.repository.AvaliacaoAgregadaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "importacao.linhas-por-transacao=2")
+class ImportacaoServiceTest {
+
+	@Autowired
+	private ImportacaoService importacaoService;
+
+	@Autowired
+	private BuscaService buscaService;
+
+	@Autowired
+	private ArtefatoRepository artefatoRepository;
+
+	@Autowired
+	private AvaliacaoAgregadaRepository avaliacaoAgregadaRepository;
+
+	@Autowired
+	private ArtefatosDeTeste artefatos;
+
+	@AfterEach
+	void limpar() {
+		artefatos.limpar();
+	}
+
+	@Test
+	void importaNdjsonEmBlocosEReportaLinhasInvalidas() throws Exception {
+		ImportacaoResultadoDTO resultado = importacaoService.importarNdjson(corpo("""
+				{"titulo": "Irrigação automatizada", "curso": "Engenharia", "semestre": 3}
+				{"titulo": "", "curso": "Engenharia"}
+
+				{"titulo": "Horta vertical", "dataCriacao": "2023-06-01"}
+				{"titulo": "Quebrado"
+				{"titulo": "Drone agrícola", "semestre": 0}
+				{"titulo": "Compostagem urbana", "campus": "Centro"}
+				"""), StatusProjeto.APROVADO);
+
+		assertThat(resultado.getLinhas()).isEqualTo(6);
+		assertThat(resultado.getImportados()).isEqualTo(3);
+		assertThat(resultado.getRejeitados()).isEqualTo(3);
+		assertThat(resultado.getErros()).extracting(ImportacaoResultadoDTO.ErroLinha::getLinha).containsExactly(2L, 5L, 6L);
+		assertThat(artefatoRepository.count()).isEqualTo(3);
+		assertThat(avaliacaoAgregadaRepository.count()).isEqualTo(3);
+		assertThat(buscaService.buscar("compostagem", "APROVADO", null, null, null, null, null, null, 0, 10)).hasSize(1);
+	}
+
+	@Test
+	void importaCsvComCabecalhoEContinuaAposValorInvalido() throws Exception {
+		ImportacaoResultadoDTO resultado = importacaoService.importarCsv(corpo("""
+				titulo,autor,curso,semestre,dataCriacao
+				Robô seguidor de linha,Ana,Engenharia,2,2023-03-10
+				Estação meteorológica,Bruno,Engenharia,dois,
+				"Jogo educativo, versão 2",Carla,Sistemas,,
+				"""), StatusProjeto.PENDENTE);
+
+		assertThat(resultado.getImportados()).isEqualTo(2);
+		assertThat(resultado.getErros()).extracting(ImportacaoResultadoDTO.ErroLinha::getLinha).containsExactly(3L);
+		assertThat(artefatoRepository.findByStatus(StatusProjeto.PENDENTE))
+				.extracting("titulo").containsExactlyInAnyOrder("Robô seguidor de linha", "Jogo educativo, versão 2");
+	}
+
+	private InputStream corpo(String texto) {
+		return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+	}
+}
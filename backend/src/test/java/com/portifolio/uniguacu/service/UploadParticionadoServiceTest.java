@@ -0,0 +1,116 @@
+package com.portifolio.uniguacu.service;
+
+import com.portifolio.uniguacu.dto.UploadInicioRequest;
+import com.portifolio.uniguacu.dto.UploadSessaoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UploadParticionadoServiceTest {
+
+	private static final int PARTE = 64 * 1024;
+
+	@Autowired
+	private UploadParticionadoService uploadParticionadoService;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Test
+	void montaPartesEnviadasForaDeOrdemEEmParaleloEEntregaAoArmazenamento() throws Exception {
+		byte[] conteudo = aleatorio(PARTE * 4 + 1000);
+		UploadSessaoDTO sessao = uploadParticionadoService.iniciar("aluno@teste", inicio("demo.mp4", conteudo.length));
+		assertThat(sessao.getTotalPartes()).isEqualTo(5);
+
+		List<CompletableFuture<String>> envios = IntStream.of(4, 2, 0, 3, 1)
+				.mapToObj(indice -> CompletableFuture.supplyAsync(() -> enviar(sessao.getId(), indice, conteudo)))
+				.toList();
+		envios.forEach(CompletableFuture::join);
+		assertThat(uploadParticionadoService.consultar("aluno@teste", sessao.getId()).getPartesRecebidas())
+				.containsExactly(0, 1, 2, 3, 4);
+
+		UploadSessaoDTO concluida = uploadParticionadoService.concluir("aluno@teste", sessao.getId());
+		assertThat(concluida.getFilename()).isEqualTo(sha256(conteudo) + ".mp4");
+		assertThat(Files.readAllBytes(fileStorageService.load(concluida.getFilename()).orElseThrow())).isEqualTo(conteudo);
+		assertThatThrownBy(() -> uploadParticionadoService.consultar("aluno@teste", sessao.getId()))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+
+	@Test
+	void retomaDepoisDeChecksumErradoEParteFaltando() throws Exception {
+		byte[] conteudo = aleatorio(PARTE * 2);
+		UploadSessaoDTO sessao = uploadParticionadoService.iniciar("aluno@teste", inicio("relatorio.pdf", conteudo.length));
+
+		enviar(sessao.getId(), 0, conteudo);
+		assertThatThrownBy(() -> uploadParticionadoService.gravarParte("aluno@teste", sessao.getId(), 1,
+				new ByteArrayInputStream(conteudo, PARTE, PARTE), "00".repeat(32)))
+				.hasMessageContaining("não confere");
+		assertThatThrownBy(() -> uploadParticionadoService.concluir("aluno@teste", sessao.getId()))
+				.hasMessageContaining("Partes pendentes: [1]");
+		// Outro usuário não enxerga a sessão
+		assertThatThrownBy(() -> uploadParticionadoService.consultar("outro@teste", sessao.getId()))
+				.hasMessageContaining("não encontrado");
+
+		enviar(sessao.getId(), 1, conteudo);
+		assertThat(uploadParticionadoService.concluir("aluno@teste", sessao.getId()).getFilename())
+				.isEqualTo(sha256(conteudo) + ".pdf");
+	}
+
+	@Test
+	void recusaParteComTamanhoErrado() {
+		UploadSessaoDTO sessao = uploadParticionadoService.iniciar("aluno@teste", inicio("video.mp4", PARTE * 2L));
+
+		assertThatThrownBy(() -> uploadParticionadoService.gravarParte("aluno@teste", sessao.getId(), 0,
+				new ByteArrayInputStream(new byte[PARTE - 1]), null))
+				.hasMessageContaining("deve ter " + PARTE + " bytes");
+		assertThat(uploadParticionadoService.consultar("aluno@teste", sessao.getId()).getPartesRecebidas()).isEmpty();
+		uploadParticionadoService.cancelar("aluno@teste", sessao.getId());
+	}
+
+	private String enviar(String id, int indice, byte[] conteudo) {
+		int inicio = indice * PARTE;
+		int tamanho = Math.min(PARTE, conteudo.length - inicio);
+		try {
+			String checksum = sha256(Arrays.copyOfRange(conteudo, inicio, inicio + tamanho));
+			return uploadParticionadoService.gravarParte("aluno@teste", id, indice,
+					new ByteArrayInputStream(conteudo, inicio, tamanho), checksum);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private UploadInicioRequest inicio(String nome, long tamanho) {
+		UploadInicioRequest request = new UploadInicioRequest();
+		request.setNome(nome);
+		request.setTamanho(tamanho);
+		request.setTamanhoParte(PARTE);
+		return request;
+	}
+
+	private byte[] aleatorio(int tamanho) {
+		byte[] bytes = new byte[tamanho];
+		new Random().nextBytes(bytes);
+		return bytes;
+	}
+
+	private String sha256(byte[] bytes) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+	}
+}